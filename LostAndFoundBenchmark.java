@@ -0,0 +1,328 @@
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Micro-benchmarks for the hot paths of LostAndFoundSystem: password hashing, LIKE-pattern
+ * construction, mapping result rows into items and table models, and the ranked/fuzzy search path.
+ * Each benchmark runs timed warmup and measurement iterations and reports the average time per
+ * operation. Results are also written as JSON in the same layout JMH uses, so runs from two commits
+ * can be compared with --compare.
+ *
+ * The db.* benchmarks run the exact-match LIKE query against the configured MySQL server and are
+ * skipped unless -Dbench.db=true.
+ *
+ * Usage: java -cp .:lib/mysql-connector-j-9.4.0.jar LostAndFoundBenchmark [regex] [--out FILE] [--compare FILE]
+ *   -Dbench.warmup=3 -Dbench.iterations=5 -Dbench.iterationMs=1000 -Dbench.rows=100000 -Dbench.db=false
+ */
+public class LostAndFoundBenchmark {
+
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    private static final long ITERATION_NS = Long.getLong("bench.iterationMs", 1000) * 1_000_000L;
+    private static final int ROWS = Integer.getInteger("bench.rows", 100_000);
+    private static final int BATCH_ROWS = 10_000;
+    private static final boolean WITH_DB = Boolean.getBoolean("bench.db");
+
+    private static final String[] COLUMNS = {"ID", "Item Name", "Description", "Location", "Date Lost", "Reported By"};
+    private static final String[] ITEM_NAMES = {"Black backpack", "Blue wallet", "AirPods case", "Calculator",
+        "Water bottle", "Umbrella", "Student ID card", "Keys", "Laptop charger", "Glasses"};
+    private static final String[] QUERIES = {"wallet", "black backpack", "library", "laptop char", "keys gym"};
+    private static final String[] TYPOS = {"walet", "blak bakpack", "libary", "umbrela", "calculater"};
+
+    @FunctionalInterface
+    interface Operation {
+        Object run() throws Exception;
+    }
+
+    record Benchmark(String name, Map<String, String> params, Operation operation) {
+    }
+
+    record Result(String name, Map<String, String> params, double[] nsPerOp) {
+        double mean() {
+            double sum = 0;
+            for (double v : nsPerOp) {
+                sum += v;
+            }
+            return sum / nsPerOp.length;
+        }
+
+        // Half-width of the 99.9% confidence interval (normal approximation)
+        double error() {
+            if (nsPerOp.length < 2) {
+                return Double.NaN;
+            }
+            double mean = mean();
+            double squares = 0;
+            for (double v : nsPerOp) {
+                squares += (v - mean) * (v - mean);
+            }
+            return 3.29 * Math.sqrt(squares / (nsPerOp.length - 1)) / Math.sqrt(nsPerOp.length);
+        }
+    }
+
+    // Keeps results reachable so the JIT cannot drop the measured work
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        Pattern filter = null;
+        Path out = Path.of("benchmark-results.json");
+        Path compare = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> out = Path.of(args[++i]);
+                case "--compare" -> compare = Path.of(args[++i]);
+                default -> filter = Pattern.compile(args[i]);
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Benchmark benchmark : benchmarks()) {
+            if (filter != null && !filter.matcher(benchmark.name()).find()) {
+                continue;
+            }
+            Result result = measure(benchmark);
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%-28s %14.1f +- %10.1f ns/op  %s%n",
+                    result.name(), result.mean(), result.error(), result.params());
+        }
+        Files.writeString(out, toJson(results), StandardCharsets.UTF_8);
+        System.out.println("Results written to " + out);
+
+        if (compare != null) {
+            compare(readJson(compare), results);
+        }
+        System.exit(0); // The search indexes and pool keep non-daemon threads alive
+    }
+
+    private static List<Benchmark> benchmarks() throws SQLException {
+        List<LostAndFoundSystem.Item> items = items(ROWS);
+        List<LostAndFoundSystem.Item> batch = items.subList(0, Math.min(BATCH_ROWS, items.size()));
+        Object[][] rows = resultRows(batch);
+        LostAndFoundSystem.SearchIndex text = new LostAndFoundSystem.SearchIndex();
+        LostAndFoundSystem.TrigramIndex fuzzy = new LostAndFoundSystem.TrigramIndex();
+        for (LostAndFoundSystem.Item item : items) {
+            text.add(item);
+            fuzzy.add(item);
+        }
+        Map<String, String> rowParams = Map.of("rows", Integer.toString(batch.size()));
+        Map<String, String> indexParams = Map.of("indexedItems", Integer.toString(items.size()));
+        int[] next = new int[1];
+
+        List<Benchmark> list = new ArrayList<>();
+        list.add(new Benchmark("hashPassword", Map.of(), () ->
+                LostAndFoundSystem.DBManager.hashPassword("correct horse battery " + (next[0]++ & 1023))));
+        list.add(new Benchmark("hashPassword.stringFormat", Map.of(), () ->
+                hashWithFormat("correct horse battery " + (next[0]++ & 1023))));
+        list.add(new Benchmark("likePattern", Map.of(), () ->
+                LostAndFoundSystem.ItemTable.likePattern(QUERIES[next[0]++ % QUERIES.length] + "_%")));
+        list.add(new Benchmark("mapRows.itemFrom", rowParams, () -> {
+            ResultSet rs = resultSet(rows);
+            List<LostAndFoundSystem.Item> mapped = new ArrayList<>();
+            while (rs.next()) {
+                mapped.add(LostAndFoundSystem.Item.from(rs));
+            }
+            return mapped;
+        }));
+        list.add(new Benchmark("tableModel.default", rowParams, () -> {
+            DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+            for (LostAndFoundSystem.Item item : batch) {
+                model.addRow(item.toRow());
+            }
+            return model.getRowCount();
+        }));
+        list.add(new Benchmark("tableModel.columnar", rowParams, () -> {
+            LostAndFoundSystem.ItemTableModel model = new LostAndFoundSystem.ItemTableModel(COLUMNS);
+            model.setItems(batch);
+            return model.getRowCount();
+        }));
+        list.add(new Benchmark("search.ranked", indexParams, () ->
+                text.search(QUERIES[next[0]++ % QUERIES.length], 200)));
+        list.add(new Benchmark("search.fuzzy", indexParams, () ->
+                fuzzy.search(TYPOS[next[0]++ % TYPOS.length], 200)));
+        list.add(new Benchmark("filter.inMemoryContains", indexParams, () -> {
+            String pattern = QUERIES[next[0]++ % QUERIES.length];
+            int matches = 0;
+            for (LostAndFoundSystem.Item item : items) {
+                if (item.name().toLowerCase().contains(pattern) || item.location().toLowerCase().contains(pattern)) {
+                    matches++;
+                }
+            }
+            return matches;
+        }));
+        if (WITH_DB) {
+            String sql = LostAndFoundSystem.ItemTable.LOST.selectSql()
+                    + " WHERE LOWER(i.item_name) LIKE ? OR LOWER(i.location) LIKE ? ORDER BY i.id DESC LIMIT 200";
+            list.add(new Benchmark("db.likeQuery", Map.of("limit", "200"), () -> {
+                String pattern = LostAndFoundSystem.ItemTable.likePattern(QUERIES[next[0]++ % QUERIES.length]);
+                try (Connection conn = LostAndFoundSystem.DBManager.getConnection();
+                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, pattern);
+                    pstmt.setString(2, pattern);
+                    ResultSet rs = pstmt.executeQuery();
+                    int count = 0;
+                    while (rs.next()) {
+                        LostAndFoundSystem.Item.from(rs);
+                        count++;
+                    }
+                    return count;
+                }
+            }));
+        }
+        return list;
+    }
+
+    private static Result measure(Benchmark benchmark) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            iteration(benchmark.operation());
+        }
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            samples[i] = iteration(benchmark.operation());
+        }
+        return new Result(benchmark.name(), benchmark.params(), samples);
+    }
+
+    // Average ns/op over one timed iteration
+    private static double iteration(Operation operation) throws Exception {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += System.identityHashCode(operation.run());
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NS);
+        return (double) elapsed / ops;
+    }
+
+    // The previous hashPassword implementation, kept as the baseline for the table-lookup version
+    private static String hashWithFormat(String password) throws NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[] hashedBytes = md.digest(password.getBytes());
+        StringBuilder sb = new StringBuilder();
+        for (byte b : hashedBytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static List<LostAndFoundSystem.Item> items(int rows) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.now().minusDays(1500);
+        List<LostAndFoundSystem.Item> items = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            items.add(new LostAndFoundSystem.Item(i, 1 + random.nextInt(3000),
+                    ITEM_NAMES[random.nextInt(ITEM_NAMES.length)] + " " + (char) ('a' + random.nextInt(26)),
+                    "Found near the entrance, reported at desk " + random.nextInt(20),
+                    (random.nextBoolean() ? "Library floor " : "Gym locker ") + random.nextInt(300),
+                    java.sql.Date.valueOf(start.plusDays(random.nextInt(1500))),
+                    "student" + random.nextInt(3000),
+                    i % 2 == 0 ? 40.0 + random.nextDouble() / 100 : Double.NaN, // Half the reports carry a place
+                    i % 2 == 0 ? -75.0 + random.nextDouble() / 100 : Double.NaN));
+        }
+        return items;
+    }
+
+    // Column values in ItemTable.selectSql() order, as the driver would hand them over (unknown coordinates as NULL)
+    private static Object[][] resultRows(List<LostAndFoundSystem.Item> items) {
+        Object[][] rows = new Object[items.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            LostAndFoundSystem.Item item = items.get(i);
+            rows[i] = new Object[] {item.id(), item.userId(), item.name(), item.description(), item.location(),
+                item.date(), item.reporter(), Double.isNaN(item.latitude()) ? null : item.latitude(),
+                Double.isNaN(item.longitude()) ? null : item.longitude()};
+        }
+        return rows;
+    }
+
+    // Stand-in ResultSet over in-memory rows; covers the calls Item.from makes
+    private static ResultSet resultSet(Object[][] rows) {
+        List<String> labels = List.of("id", "user_id", "item_name", "description", "location", "item_date", "username",
+                "latitude", "longitude");
+        int[] cursor = {-1};
+        boolean[] wasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "next" -> ++cursor[0] < rows.length;
+                    case "getInt", "getString", "getDate", "getObject" -> rows[cursor[0]][labels.indexOf((String) methodArgs[0])];
+                    case "getDouble" -> {
+                        Object value = rows[cursor[0]][labels.indexOf((String) methodArgs[0])];
+                        wasNull[0] = value == null;
+                        yield value == null ? 0.0 : (Double) value;
+                    }
+                    case "wasNull" -> wasNull[0];
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static String toJson(List<Result> results) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int r = 0; r < results.size(); r++) {
+            Result result = results.get(r);
+            json.append("  {\"benchmark\": \"").append(result.name()).append("\", \"mode\": \"avgt\", ")
+                .append("\"warmupIterations\": ").append(WARMUP).append(", \"measurementIterations\": ").append(ITERATIONS)
+                .append(", \"params\": {");
+            int p = 0;
+            for (Map.Entry<String, String> param : new java.util.TreeMap<>(result.params()).entrySet()) {
+                json.append(p++ > 0 ? ", " : "").append('"').append(param.getKey()).append("\": \"")
+                    .append(param.getValue()).append('"');
+            }
+            json.append("}, \"primaryMetric\": {\"score\": ").append(number(result.mean()))
+                .append(", \"scoreError\": ").append(number(result.error()))
+                .append(", \"scoreUnit\": \"ns/op\", \"rawData\": [[");
+            for (int i = 0; i < result.nsPerOp().length; i++) {
+                json.append(i > 0 ? ", " : "").append(number(result.nsPerOp()[i]));
+            }
+            json.append("]]}}").append(r + 1 < results.size() ? ",\n" : "\n");
+        }
+        return json.append("]\n").toString();
+    }
+
+    private static String number(double value) {
+        return Double.isNaN(value) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    // Reads benchmark name to score from a file written by toJson (or by JMH's JSON output)
+    private static Map<String, Double> readJson(Path file) throws IOException {
+        Matcher matcher = Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\".*?\"score\"\\s*:\\s*([0-9.eE+-]+)", Pattern.DOTALL)
+                .matcher(Files.readString(file, StandardCharsets.UTF_8));
+        Map<String, Double> scores = new LinkedHashMap<>();
+        while (matcher.find()) {
+            scores.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+        }
+        return scores;
+    }
+
+    private static void compare(Map<String, Double> baseline, List<Result> results) {
+        System.out.printf(Locale.ROOT, "%n%-28s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Result result : results) {
+            Double before = baseline.get(result.name());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-28s %14s %14.1f %9s%n", result.name(), "-", result.mean(), "new");
+            } else {
+                System.out.printf(Locale.ROOT, "%-28s %14.1f %14.1f %+8.1f%%%n", result.name(), before, result.mean(),
+                        (result.mean() - before) / before * 100);
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for LostAndFoundSystem. Each virtual user signs up, logs in and then
+ * repeatedly picks a workflow from the configured mix, runs it through the same repositories, caches
+ * and connection pool the Swing frames use, and waits an exponentially distributed think time.
+ * Search-as-you-type types a query one keystroke at a time and issues a search whenever the pause
+ * between keystrokes reaches the search debounce, as the view frames do.
+ *
+ * Queries are drawn from load.distinctQueries one- and two-word combinations of item and place words,
+ * and logins pick any account signed up during the run, so ResultCache and CredentialCache see a
+ * spread of keys rather than a handful of hot ones. Their hit rates over the measured period are
+ * reported next to the latencies; -Dload.bypassCaches=true skips both caches and measures the
+ * database path alone.
+ *
+ * Latency is recorded per operation after the warmup period and reported as throughput, mean,
+ * p50/p90/p99/p99.9 and max. The report is also written as JSON, so two runs can be compared with
+ * --compare. All virtual users share this process's pool (-Dlof.pool.maxSize); run several
+ * processes to approximate separate desktop clients.
+ *
+ * Usage: java -cp .:lib/mysql-connector-j-9.4.0.jar LostAndFoundLoadTest [--out FILE] [--compare FILE]
+ *   -Dload.users=50 -Dload.durationSec=60 -Dload.warmupSec=10 -Dload.rampSec=10 -Dload.thinkMs=1000
+ *   -Dload.keystrokeMs=120 -Dload.mix=search=50,browse=15,login=15,reportLost=8,reportFound=8,signUp=4
+ *   -Dload.distinctQueries=1000 -Dload.bypassCaches=false
+ */
+public class LostAndFoundLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 50);
+    private static final long DURATION_MS = Long.getLong("load.durationSec", 60) * 1000;
+    private static final long WARMUP_MS = Long.getLong("load.warmupSec", 10) * 1000;
+    private static final long RAMP_MS = Long.getLong("load.rampSec", 10) * 1000;
+    private static final long THINK_MS = Long.getLong("load.thinkMs", 1000);
+    private static final long KEYSTROKE_MS = Long.getLong("load.keystrokeMs", 120);
+    private static final long DEBOUNCE_MS = Integer.getInteger("lof.search.debounceMs", 250);
+    private static final String MIX = System.getProperty("load.mix",
+            "search=50,browse=15,login=15,reportLost=8,reportFound=8,signUp=4");
+    private static final int DISTINCT_QUERIES = Integer.getInteger("load.distinctQueries", 1000);
+    private static final boolean BYPASS_CACHES = Boolean.getBoolean("load.bypassCaches");
+
+    private static final String PASSWORD = "loadtest-password";
+    private static final String[] ITEM_NAMES = {"Black backpack", "Blue wallet", "AirPods case", "Calculator",
+        "Water bottle", "Umbrella", "Student ID card", "Keys", "Laptop charger", "Glasses"};
+    private static final String[] LOCATIONS = {"Library 2nd floor", "Science building", "Gym locker room",
+        "Cafeteria", "Main entrance", "Parking lot B", "Lecture hall 3", "Student center"};
+    private static final String[] QUERY_WORDS = {"black", "blue", "red", "grey", "silver", "small", "leather",
+        "backpack", "wallet", "airpods", "case", "calculator", "water", "bottle", "umbrella", "student", "card",
+        "keys", "laptop", "charger", "glasses", "phone", "jacket", "library", "science", "gym", "locker",
+        "cafeteria", "entrance", "parking", "lecture", "hall", "center", "floor"};
+
+    enum Operation {
+        SIGN_UP("signUp"), LOGIN("login"), REPORT_LOST("reportLost"), REPORT_FOUND("reportFound"),
+        SEARCH("search"), BROWSE("browse");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    record Stats(LostAndFoundSystem.LatencyHistogram latency, LongAdder errors) {
+    }
+
+    record Row(String operation, long count, long errors, double throughput, double meanMs, double p50Ms,
+               double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    record CacheRow(String name, long hits, long misses) {
+        double hitRate() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+
+    private static final Map<Operation, Stats> STATS = new EnumMap<>(Operation.class);
+    private static final AtomicInteger SIGN_UPS = new AtomicInteger();
+    // Accounts created by this run, for logins spread over many users
+    private static final List<String> ACCOUNTS = Collections.synchronizedList(new ArrayList<>());
+    private static final List<String> QUERIES = queries(DISTINCT_QUERIES);
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis() % 100_000_000, 36);
+
+    private static final AtomicReference<Exception> FIRST_ERROR = new AtomicReference<>();
+
+    private static volatile long measureFrom;
+    private static volatile long stopAt;
+
+    public static void main(String[] args) throws Exception {
+        Path out = Path.of("load-report.json");
+        Path compare = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> out = Path.of(args[++i]);
+                case "--compare" -> compare = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        for (Operation operation : Operation.values()) {
+            STATS.put(operation, new Stats(new LostAndFoundSystem.LatencyHistogram(), new LongAdder()));
+        }
+        Operation[] mix = parseMix(MIX);
+
+        System.out.printf(Locale.ROOT, "%d virtual users, %ds (%ds warmup, %ds ramp), think %dms, mix %s, %d queries%s%n",
+                USERS, DURATION_MS / 1000, WARMUP_MS / 1000, RAMP_MS / 1000, THINK_MS, MIX, QUERIES.size(),
+                BYPASS_CACHES ? ", caches bypassed" : "");
+        LostAndFoundSystem.SearchIndexes.warmUp();
+        long start = System.currentTimeMillis();
+        measureFrom = start + WARMUP_MS;
+        stopAt = start + DURATION_MS;
+        LostAndFoundSystem.ResultCache.Stats resultsAtStart;
+        LostAndFoundSystem.CredentialCache.Stats credentialsAtStart;
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < USERS; u++) {
+                long startDelay = USERS <= 1 ? 0 : RAMP_MS * u / (USERS - 1);
+                users.submit(() -> virtualUser(startDelay, mix));
+            }
+            Thread.sleep(Math.max(0, measureFrom - System.currentTimeMillis()));
+            resultsAtStart = LostAndFoundSystem.ResultCache.stats();
+            credentialsAtStart = LostAndFoundSystem.CredentialCache.stats();
+            users.shutdown();
+            users.awaitTermination(DURATION_MS + 60_000, TimeUnit.MILLISECONDS);
+        }
+        LostAndFoundSystem.ResultCache.Stats results = LostAndFoundSystem.ResultCache.stats();
+        LostAndFoundSystem.CredentialCache.Stats credentials = LostAndFoundSystem.CredentialCache.stats();
+        CacheRow[] caches = {
+            new CacheRow("ResultCache", results.hits() - resultsAtStart.hits(), results.misses() - resultsAtStart.misses()),
+            new CacheRow("CredentialCache", credentials.hits() - credentialsAtStart.hits(),
+                    credentials.misses() - credentialsAtStart.misses())
+        };
+
+        double seconds = Math.max(1, DURATION_MS - WARMUP_MS) / 1000.0;
+        List<Row> rows = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%n%-12s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n", "operation", "count",
+                "errors", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Stats stats = STATS.get(operation);
+            LostAndFoundSystem.LatencyHistogram latency = stats.latency();
+            Row row = new Row(operation.key, latency.count(), stats.errors().sum(), latency.count() / seconds,
+                    latency.meanNanos() / 1e6, latency.percentileNanos(50) / 1e6, latency.percentileNanos(90) / 1e6,
+                    latency.percentileNanos(99) / 1e6, latency.percentileNanos(99.9) / 1e6, latency.maxNanos() / 1e6);
+            rows.add(row);
+            System.out.printf(Locale.ROOT, "%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.operation(), row.count(), row.errors(), row.throughput(), row.meanMs(), row.p50Ms(),
+                    row.p90Ms(), row.p99Ms(), row.p999Ms(), row.maxMs());
+        }
+        System.out.printf(Locale.ROOT, "%n%-16s %9s %9s %9s%n", "cache", "hits", "misses", "hit rate");
+        for (CacheRow cache : caches) {
+            System.out.printf(Locale.ROOT, "%-16s %9d %9d %8.1f%%%n", cache.name(), cache.hits(), cache.misses(),
+                    cache.hitRate() * 100);
+        }
+        System.out.println("Pool: " + LostAndFoundSystem.DBManager.poolStats());
+        Files.writeString(out, toJson(rows, caches), StandardCharsets.UTF_8);
+        System.out.println("Report written to " + out);
+
+        if (compare != null) {
+            compare(readJson(compare), rows);
+        }
+        System.exit(0); // The pool, change feed and search indexes keep non-daemon threads alive
+    }
+
+    private static void virtualUser(long startDelay, Operation[] mix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(startDelay);
+            String username = nextUsername();
+            int[] userId = {-1};
+            timed(Operation.SIGN_UP, () -> signUp(username));
+            timed(Operation.LOGIN, () -> userId[0] = login(username));
+            while (System.currentTimeMillis() < stopAt) {
+                Operation operation = mix[random.nextInt(mix.length)];
+                switch (operation) {
+                    case SIGN_UP -> timed(operation, () -> signUp(nextUsername()));
+                    case LOGIN -> timed(operation, () -> login(randomAccount(username)));
+                    case REPORT_LOST -> timed(operation, () -> report(LostAndFoundSystem.ItemTable.LOST, userId[0]));
+                    case REPORT_FOUND -> timed(operation, () -> report(LostAndFoundSystem.ItemTable.FOUND, userId[0]));
+                    case BROWSE -> timed(operation, () -> search(randomTable(), ""));
+                    case SEARCH -> typeQuery(QUERIES.get(random.nextInt(QUERIES.size())));
+                }
+                Thread.sleep(exponential(THINK_MS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    interface Step {
+        void run() throws Exception;
+    }
+
+    private static void timed(Operation operation, Step step) {
+        long started = System.nanoTime();
+        boolean failed = false;
+        try {
+            step.run();
+        } catch (Exception e) {
+            failed = true;
+            if (FIRST_ERROR.compareAndSet(null, e)) {
+                System.err.println(operation.key + " failed: " + e);
+            }
+        }
+        if (System.currentTimeMillis() >= measureFrom) {
+            Stats stats = STATS.get(operation);
+            stats.latency().record(System.nanoTime() - started);
+            if (failed) {
+                stats.errors().increment();
+            }
+        }
+    }
+
+    private static void signUp(String username) throws SQLException {
+        if (!LostAndFoundSystem.UserRepository.SHARED.create(username, username + "@load.test", PASSWORD)) {
+            throw new SQLException("Sign-up failed for " + username);
+        }
+        ACCOUNTS.add(username);
+    }
+
+    private static int login(String username) throws SQLException {
+        int userId;
+        if (BYPASS_CACHES) {
+            LostAndFoundSystem.UserRepository.StoredCredentials stored =
+                    LostAndFoundSystem.UserRepository.SHARED.findCredentials(username);
+            userId = stored != null && stored.passwordHash().equals(LostAndFoundSystem.DBManager.hashPassword(PASSWORD))
+                    ? stored.userId() : -1;
+        } else {
+            userId = LostAndFoundSystem.CredentialCache.verify(username, PASSWORD);
+        }
+        if (userId == -1) {
+            throw new SQLException("Login rejected for " + username);
+        }
+        return userId;
+    }
+
+    private static void report(LostAndFoundSystem.ItemTable table, int userId) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String name = ITEM_NAMES[random.nextInt(ITEM_NAMES.length)];
+        String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+        String date = LocalDate.now().minusDays(random.nextInt(30)).toString();
+        String invalid = LostAndFoundSystem.Validation.reportError(name, "Load test item", location, date);
+        if (invalid != null) {
+            throw new IllegalStateException(invalid);
+        }
+        LostAndFoundSystem.ItemRepository.of(table).insert(userId, name, "Load test item", location, LocalDate.parse(date));
+    }
+
+    private static void search(LostAndFoundSystem.ItemTable table, String query) throws SQLException {
+        LostAndFoundSystem.SearchPipeline.Cancellation cancellation = new LostAndFoundSystem.SearchPipeline.Cancellation();
+        if (BYPASS_CACHES) {
+            LostAndFoundSystem.ItemSearch.search(table, LostAndFoundSystem.SearchMode.EXACT, query, null, cancellation);
+        } else {
+            LostAndFoundSystem.ItemSearch.query(table, LostAndFoundSystem.SearchMode.EXACT, query, cancellation);
+        }
+    }
+
+    // One search per pause of at least the debounce interval, plus one for the finished query
+    private static void typeQuery(String query) throws InterruptedException {
+        LostAndFoundSystem.ItemTable table = randomTable();
+        for (int typed = 1; typed <= query.length(); typed++) {
+            long pause = exponential(KEYSTROKE_MS);
+            if (pause >= DEBOUNCE_MS || typed == query.length()) {
+                String prefix = query.substring(0, typed).trim();
+                Thread.sleep(DEBOUNCE_MS);
+                timed(Operation.SEARCH, () -> search(table, prefix));
+            } else {
+                Thread.sleep(pause);
+            }
+        }
+    }
+
+    private static LostAndFoundSystem.ItemTable randomTable() {
+        return ThreadLocalRandom.current().nextBoolean() ? LostAndFoundSystem.ItemTable.LOST : LostAndFoundSystem.ItemTable.FOUND;
+    }
+
+    // Any account this run created, or the user's own before any exist
+    private static String randomAccount(String fallback) {
+        synchronized (ACCOUNTS) {
+            return ACCOUNTS.isEmpty() ? fallback : ACCOUNTS.get(ThreadLocalRandom.current().nextInt(ACCOUNTS.size()));
+        }
+    }
+
+    // Up to count distinct one- and two-word queries, shuffled with a fixed seed so runs are comparable
+    private static List<String> queries(int count) {
+        List<String> queries = new ArrayList<>();
+        for (String first : QUERY_WORDS) {
+            queries.add(first);
+        }
+        for (String first : QUERY_WORDS) {
+            for (String second : QUERY_WORDS) {
+                if (!first.equals(second)) {
+                    queries.add(first + " " + second);
+                }
+            }
+        }
+        Collections.shuffle(queries, new Random(42));
+        return new ArrayList<>(queries.subList(0, Math.max(1, Math.min(count, queries.size()))));
+    }
+
+    private static String nextUsername() {
+        return "load_" + RUN_ID + "_" + SIGN_UPS.incrementAndGet();
+    }
+
+    private static long exponential(long meanMs) {
+        return meanMs <= 0 ? 0 : (long) (-meanMs * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    // "search=50,login=10" -> a lookup table where each operation appears in proportion to its weight
+    private static Operation[] parseMix(String mix) {
+        Map<String, Operation> byKey = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            byKey.put(operation.key, operation);
+        }
+        List<Operation> table = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            Operation operation = byKey.get(pair[0].trim());
+            if (operation == null || pair.length != 2) {
+                throw new IllegalArgumentException("Bad load.mix entry '" + part + "', operations are " + byKey.keySet());
+            }
+            for (int w = Integer.parseInt(pair[1].trim()); w > 0; w--) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no weighted operations");
+        }
+        return table.toArray(new Operation[0]);
+    }
+
+    private static String toJson(List<Row> rows, CacheRow[] caches) {
+        StringBuilder json = new StringBuilder("{\n  \"config\": {")
+            .append("\"users\": ").append(USERS).append(", \"durationSec\": ").append(DURATION_MS / 1000)
+            .append(", \"warmupSec\": ").append(WARMUP_MS / 1000).append(", \"thinkMs\": ").append(THINK_MS)
+            .append(", \"mix\": \"").append(MIX).append("\", \"distinctQueries\": ").append(QUERIES.size())
+            .append(", \"bypassCaches\": ").append(BYPASS_CACHES).append("},\n  \"caches\": [\n");
+        for (int c = 0; c < caches.length; c++) {
+            CacheRow cache = caches[c];
+            json.append("    {\"cache\": \"").append(cache.name()).append("\", \"hits\": ").append(cache.hits())
+                .append(", \"misses\": ").append(cache.misses())
+                .append(", \"hitRate\": ").append(number(cache.hitRate()))
+                .append('}').append(c + 1 < caches.length ? ",\n" : "\n");
+        }
+        json.append("  ],\n  \"operations\": [\n");
+        for (int r = 0; r < rows.size(); r++) {
+            Row row = rows.get(r);
+            json.append("    {\"operation\": \"").append(row.operation()).append("\", \"count\": ").append(row.count())
+                .append(", \"errors\": ").append(row.errors())
+                .append(", \"throughput\": ").append(number(row.throughput()))
+                .append(", \"meanMs\": ").append(number(row.meanMs()))
+                .append(", \"p50Ms\": ").append(number(row.p50Ms()))
+                .append(", \"p90Ms\": ").append(number(row.p90Ms()))
+                .append(", \"p99Ms\": ").append(number(row.p99Ms()))
+                .append(", \"p999Ms\": ").append(number(row.p999Ms()))
+                .append(", \"maxMs\": ").append(number(row.maxMs()))
+                .append('}').append(r + 1 < rows.size() ? ",\n" : "\n");
+        }
+        return json.append("  ]\n}\n").toString();
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    // Reads operation name to {throughput, p99Ms} from a report written by toJson
+    private static Map<String, double[]> readJson(Path file) throws IOException {
+        Matcher matcher = Pattern.compile("\"operation\"\\s*:\\s*\"([^\"]+)\".*?\"throughput\"\\s*:\\s*([0-9.eE+-]+)"
+                + ".*?\"p99Ms\"\\s*:\\s*([0-9.eE+-]+)").matcher(Files.readString(file, StandardCharsets.UTF_8));
+        Map<String, double[]> rows = new LinkedHashMap<>();
+        while (matcher.find()) {
+            rows.put(matcher.group(1), new double[] {Double.parseDouble(matcher.group(2)), Double.parseDouble(matcher.group(3))});
+        }
+        return rows;
+    }
+
+    private static void compare(Map<String, double[]> baseline, List<Row> rows) {
+        System.out.printf(Locale.ROOT, "%n%-12s %12s %12s %9s %12s %12s %9s%n", "operation",
+                "base ops/s", "ops/s", "change", "base p99", "p99", "change");
+        for (Row row : rows) {
+            double[] before = baseline.get(row.operation());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-12s %12s %12.1f %9s %12s %12.2f %9s%n", row.operation(), "-",
+                        row.throughput(), "new", "-", row.p99Ms(), "new");
+            } else {
+                System.out.printf(Locale.ROOT, "%-12s %12.1f %12.1f %s %12.2f %12.2f %s%n", row.operation(),
+                        before[0], row.throughput(), change(before[0], row.throughput()),
+                        before[1], row.p99Ms(), change(before[1], row.p99Ms()));
+            }
+        }
+    }
+
+    private static String change(double before, double after) {
+        return before == 0 ? String.format(Locale.ROOT, "%9s", "-")
+                : String.format(Locale.ROOT, "%+8.1f%%", (after - before) / before * 100);
+    }
+}
@@ -4,31 +4,259 @@ import java.awt.event.*;
 import java.sql.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableModel;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.security.SecureRandom;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.RecordComponent;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import java.util.regex.Pattern;
 
 public class LostAndFoundSystem {
     // Database configuration
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/usersdb";
+    // rewriteBatchedStatements turns JDBC batches into multi-row INSERTs;
+    // cachePrepStmts/useServerPrepStmts keep a per-connection cache of server-side prepared statements
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/usersdb?rewriteBatchedStatements=true"
+            + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "admin"; 
 
+    // Connection pool configuration (override with -Dlof.pool.maxSize=... etc.)
+    private static final int POOL_MIN_IDLE = Integer.getInteger("lof.pool.minIdle", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("lof.pool.maxSize", 10);
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("lof.pool.acquireTimeoutMs", 10_000);
+    private static final long POOL_MAX_IDLE_MS = Long.getLong("lof.pool.maxIdleMs", 300_000);
+    private static final long POOL_VALIDATE_AFTER_MS = Long.getLong("lof.pool.validateAfterMs", 5_000);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("lof.pool.leakThresholdMs", 60_000);
+    // Captures a stack trace on every borrow so leak reports show where it happened; a debugging aid only
+    private static final boolean POOL_LEAK_STACKS = Boolean.getBoolean("lof.pool.leakStacks");
+
+    // Search-as-you-type configuration
+    private static final int SEARCH_DEBOUNCE_MS = Integer.getInteger("lof.search.debounceMs", 250);
+    private static final int SEARCH_QUERY_TIMEOUT_S = Integer.getInteger("lof.search.queryTimeoutSeconds", 10);
+    private static final int SEARCH_RANKED_LIMIT = Integer.getInteger("lof.search.rankedLimit", 500);
+    private static final int SEARCH_FUZZY_LIMIT = Integer.getInteger("lof.search.fuzzyLimit", 200);
+
+    // Item view paging: rows per keyset page, pages kept in memory, rows from the end that trigger a prefetch
+    private static final int VIEW_PAGE_SIZE = Integer.getInteger("lof.view.pageSize", 200);
+    private static final int VIEW_RESIDENT_PAGES = Integer.getInteger("lof.view.residentPages", 10);
+    private static final int VIEW_PREFETCH_ROWS = Integer.getInteger("lof.view.prefetchRows", 100);
+
+    // Lost/found matching: matches kept per new report, candidates scored, minimum score stored,
+    // minimum text similarity before location and date count, and terms too common to narrow the candidates down
+    private static final int MATCH_TOP_K = Integer.getInteger("lof.match.topK", 5);
+    private static final int MATCH_CANDIDATES = Integer.getInteger("lof.match.candidates", 200);
+    private static final double MATCH_MIN_SCORE = Double.parseDouble(System.getProperty("lof.match.minScore", "0.35"));
+    private static final double MATCH_MIN_TEXT_SCORE = Double.parseDouble(System.getProperty("lof.match.minTextScore", "0.15"));
+    private static final int MATCH_MAX_TERM_DOCS = Integer.getInteger("lof.match.maxTermDocs", 5_000);
+    private static final int MATCH_CONCURRENCY = Integer.getInteger("lof.match.concurrency", 2);
+
+    // Change feed: how often open views poll for rows newer than the last seen id, the most rows per query,
+    // and how many ids below the last seen one are rechecked for rows whose transaction committed late
+    private static final long FEED_INTERVAL_MS = Long.getLong("lof.feed.intervalMs", 2000);
+    private static final int FEED_BATCH = Integer.getInteger("lof.feed.batch", 500);
+    private static final int FEED_LAG_IDS = Integer.getInteger("lof.feed.lagIds", 2_000);
+
+    // HTTP API (--server): listen address, request body cap, page size cap and login session lifetime
+    private static final String API_HOST = System.getProperty("lof.api.host", "127.0.0.1");
+    private static final int API_DEFAULT_PORT = Integer.getInteger("lof.api.port", 8080);
+    private static final int API_MAX_BODY_BYTES = Integer.getInteger("lof.api.maxBodyBytes", 64 * 1024);
+    private static final int API_MAX_LIMIT = Integer.getInteger("lof.api.maxLimit", 5000);
+    private static final long API_SESSION_TTL_MS = Long.getLong("lof.api.sessionTtlMs", 8 * 3600_000L);
+
+    // Autocomplete: distinct values kept per field, suggestions shown per keystroke
+    private static final int AUTOCOMPLETE_MAX_ENTRIES = Integer.getInteger("lof.autocomplete.maxEntries", 100_000);
+    private static final int AUTOCOMPLETE_SUGGESTIONS = 8;
+    private static final int AUTOCOMPLETE_DELTA_LIMIT = 1024;
+
+    // Geo search: edge of a grid cell in the in-memory location index, most items returned by an area search
+    private static final int GEO_CELL_METERS = Integer.getInteger("lof.geo.cellMeters", 250);
+    private static final int GEO_LIMIT = Integer.getInteger("lof.geo.limit", 500);
+
+    // Date partitioning of the item tables (opt-in, see ItemPartitions): months of partitions created ahead,
+    // and how many days back the item views look unless "Include older" is ticked (0 shows everything; unset
+    // means 90 once the tables are found partitioned, by whichever client converted them)
+    private static final boolean ITEM_PARTITIONING = Boolean.getBoolean("lof.partitioning");
+    private static final int PARTITION_MONTHS_AHEAD = Integer.getInteger("lof.partitioning.monthsAhead", 3);
+    private static final int VIEW_RECENT_DAYS = Integer.getInteger("lof.view.recentDays", -1);
+
+    // Archival (opt-in, see ItemArchiver): how often it runs, item age in days after which items are archived
+    // (0 archives only resolved ones), rows moved per transaction and the shortest pause between batches
+    private static final boolean ARCHIVE_ENABLED = Boolean.getBoolean("lof.archive");
+    private static final long ARCHIVE_INTERVAL_MS = Long.getLong("lof.archive.intervalMs", 3_600_000);
+    private static final int ARCHIVE_MAX_AGE_DAYS = Integer.getInteger("lof.archive.maxAgeDays", 365);
+    private static final int ARCHIVE_BATCH = Integer.getInteger("lof.archive.batch", 500);
+    private static final long ARCHIVE_PAUSE_MS = Long.getLong("lof.archive.pauseMs", 200);
+
+    // Startup: print launch timings; always run the full schema check instead of trusting the stored fingerprint
+    private static final boolean STARTUP_REPORT = Boolean.getBoolean("lof.startup.report");
+    private static final boolean SCHEMA_ALWAYS_VERIFY = Boolean.getBoolean("lof.schema.alwaysVerify");
+
+    // EDT watchdog: an event dispatch running longer than this is logged with the EDT stack and in-flight SQL
+    private static final boolean EDT_WATCHDOG = Boolean.parseBoolean(System.getProperty("lof.edt.watchdog", "true"));
+    private static final long EDT_STALL_MS = Long.getLong("lof.edt.stallMs", 250);
+    private static final String EDT_LOG_PATTERN = System.getProperty("lof.edt.log", "%h/lof-edt-stalls.%g.log");
+    private static final int EDT_LOG_BYTES = Integer.getInteger("lof.edt.logBytes", 1024 * 1024);
+    private static final int EDT_LOG_FILES = Integer.getInteger("lof.edt.logFiles", 5);
+
+    // Result cache: listing/search results shared across view frames, bounded by entries and estimated bytes
+    private static final int RESULT_CACHE_MAX_ENTRIES = Integer.getInteger("lof.resultCache.maxEntries", 256);
+    private static final long RESULT_CACHE_MAX_BYTES = Long.getLong("lof.resultCache.maxBytes", 16L * 1024 * 1024);
+
+    // Credential cache: bounded LRU of username -> (id, stored hash); unknown usernames expire sooner
+    private static final int CREDENTIAL_CACHE_SIZE = Integer.getInteger("lof.credentials.maxEntries", 10_000);
+    private static final long CREDENTIAL_TTL_MS = Long.getLong("lof.credentials.ttlMs", 300_000);
+    private static final long CREDENTIAL_NEGATIVE_TTL_MS = Long.getLong("lof.credentials.negativeTtlMs", 10_000);
+
+    // Bulk import: rows per JDBC batch and transaction, and how many row errors to keep for the report
+    private static final int IMPORT_CHUNK_SIZE = Integer.getInteger("lof.import.chunkSize", 1000);
+    private static final int IMPORT_MAX_REPORTED_ERRORS = Integer.getInteger("lof.import.maxReportedErrors", 1000);
+
+    // Export: size of the direct buffer rows are encoded into before each channel write
+    private static final int EXPORT_BUFFER_BYTES = Integer.getInteger("lof.export.bufferBytes", 64 * 1024);
+
     // --- Utility Class for DB Management and Hashing ---
 static class DBManager {
+        private static volatile ConnectionPool pool;
+
+        // Borrows a pooled connection; closing it returns it to the pool
         public static Connection getConnection() throws SQLException {
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            return pool().borrow();
+        }
+
+        static ConnectionPool pool() {
+            ConnectionPool p = pool;
+            if (p == null) {
+                synchronized (DBManager.class) {
+                    p = pool;
+                    if (p == null) {
+                        p = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD,
+                                POOL_MIN_IDLE, POOL_MAX_SIZE, POOL_ACQUIRE_TIMEOUT_MS,
+                                POOL_MAX_IDLE_MS, POOL_VALIDATE_AFTER_MS, POOL_LEAK_THRESHOLD_MS);
+                        Runtime.getRuntime().addShutdownHook(new Thread(p::shutdown, "lof-pool-shutdown"));
+                        Metrics.register("ConnectionPool", "shared", p::stats, null);
+                        pool = p;
+                    }
+                }
+            }
+            return p;
+        }
+
+        public static ConnectionPool.Stats poolStats() {
+            return pool().stats();
+        }
+
+        // Empty until the pool has been created
+        static List<ConnectionPool.InFlight> inFlightSql() {
+            ConnectionPool p = pool;
+            return p == null ? List.of() : p.inFlight();
         }
 
+        private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
         public static String hashPassword(String password) {
             try {
                 MessageDigest md = MessageDigest.getInstance("SHA-256");
                 byte[] hashedBytes = md.digest(password.getBytes());
-                StringBuilder sb = new StringBuilder();
-                for (byte b : hashedBytes) {
-                    sb.append(String.format("%02x", b));
+                // Table lookup instead of String.format per byte; output is the same lowercase hex
+                char[] hex = new char[hashedBytes.length * 2];
+                for (int i = 0; i < hashedBytes.length; i++) {
+                    hex[2 * i] = HEX_DIGITS[(hashedBytes[i] >> 4) & 0xF];
+                    hex[2 * i + 1] = HEX_DIGITS[hashedBytes[i] & 0xF];
                 }
-                return sb.toString();
+                return new String(hex);
             } catch (NoSuchAlgorithmException e) {
                 // Fallback to plain text if hashing algorithm is unavailable (bad practice in production)
                 System.err.println("SHA-256 not available. Storing plain password.");
@@ -40,18 +268,121 @@ static class DBManager {
             JOptionPane.showMessageDialog(parent, message, "Error", JOptionPane.ERROR_MESSAGE);
         }
 
+        // Shows a wait cursor and disables the given controls while a background call is running
+        public static void setBusy(Component window, boolean busy, Component... controls) {
+            window.setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+            for (Component control : controls) {
+                control.setEnabled(!busy);
+            }
+        }
+
+        private static CompletableFuture<Integer> schemaCheck;
+
+        // The schema check runs once per process on a data-access thread; a failed check is retried on the next call
+        static synchronized CompletableFuture<Integer> schemaReady() {
+            if (schemaCheck == null || schemaCheck.isCompletedExceptionally()) {
+                schemaCheck = DataAccess.submit(SchemaMigrations::ensureCurrent);
+            }
+            return schemaCheck;
+        }
+
+        // Returns at once; the label shows the outcome of the (shared) background schema check
         public static void initializeDatabase(JLabel statusLabel) {
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-            } catch (ClassNotFoundException e) {
-                statusLabel.setText("MySQL JDBC Driver not found!");
+            statusLabel.setText("Connecting to database...");
+            statusLabel.setForeground(Color.GRAY);
+            DataAccess.onEdt(schemaReady(), version -> {
+                statusLabel.setText("Database connected, schema version " + version + ".");
+                statusLabel.setForeground(Color.GREEN);
+            }, error -> {
+                if (error.getCause() instanceof ClassNotFoundException) {
+                    statusLabel.setText("MySQL JDBC Driver not found!");
+                    statusLabel.setForeground(Color.RED);
+                    showError(null, "MySQL JDBC Driver not found!\nPlease add the MySQL Connector/J library.");
+                    return;
+                }
+                statusLabel.setText("Database connection failed: " + error.getMessage());
                 statusLabel.setForeground(Color.RED);
-                showError(null, "MySQL JDBC Driver not found!\nPlease add the MySQL Connector/J library.");
-                return;
+                showError(null, "Database connection failed: " + error.getMessage() +
+                         "\nPlease check your MySQL server and configuration.");
+            });
+        }
+    }
+
+    // --- Launch timings from JVM start through main to the first interactive frame (-Dlof.startup.report=true) ---
+    static class StartupTimer {
+        private static final long JVM_START_MS = ManagementFactory.getRuntimeMXBean().getStartTime();
+        private static volatile long mainNanos;
+
+        static void mainStarted() {
+            mainNanos = System.nanoTime();
+            if (STARTUP_REPORT) {
+                System.out.printf(Locale.ROOT, "[startup] JVM start to main: %d ms%n", System.currentTimeMillis() - JVM_START_MS);
             }
-            
-            try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-                String usersTableSQL = """
+        }
+
+        static void mark(String milestone) {
+            if (STARTUP_REPORT && mainNanos != 0) {
+                System.out.printf(Locale.ROOT, "[startup] +%d ms %s%n",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mainNanos), milestone);
+            }
+        }
+
+        // Marks the frame interactive once the EDT has handled the events queued while it was opening
+        static void watch(Window frame, Runnable onInteractive) {
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    mark("first frame visible");
+                    frame.removeWindowListener(this);
+                    SwingUtilities.invokeLater(() -> {
+                        mark("first frame interactive");
+                        onInteractive.run();
+                    });
+                }
+            });
+        }
+    }
+
+    // --- Versioned, checksummed schema migrations recorded in schema_version ---
+    static class SchemaMigrations {
+        // A step is skipped when the index or column it creates already exists, so a migration interrupted
+        // part-way (MySQL DDL is not transactional) can simply be run again
+        record Step(String sql, String table, String index, String column) {
+            static Step always(String sql) {
+                return new Step(sql, null, null, null);
+            }
+
+            static Step addIndex(String table, String index, String sql) {
+                return new Step(sql, table, index, null);
+            }
+
+            static Step addColumn(String table, String column, String sql) {
+                return new Step(sql, table, null, column);
+            }
+        }
+
+        record Migration(int version, String description, List<Step> steps) {
+            // Over the SQL text only; an applied migration must never change
+            String checksum() {
+                StringBuilder text = new StringBuilder();
+                for (Step step : steps) {
+                    text.append(step.sql().strip()).append(";\n");
+                }
+                return sha256(text.toString());
+            }
+        }
+
+        private static final String LOCK_NAME = "lof_schema_migrations";
+        private static final int LOCK_TIMEOUT_S = 60;
+        private static final String FINGERPRINT_KEY = "schemaFingerprint";
+
+        // Append only. Index DDL uses online ALTER TABLE: ALGORITHM=INPLACE, LOCK=NONE keeps the table
+        // readable and writable while the index builds. The first FULLTEXT index on an InnoDB table
+        // rebuilds it and cannot allow concurrent writes, so those steps ask for LOCK=SHARED.
+        // Nullable columns are appended with ALGORITHM=INSTANT, which only changes the table metadata.
+        static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Base tables", List.of(
+                Step.always("""
                     CREATE TABLE IF NOT EXISTS users (
                         id INT AUTO_INCREMENT PRIMARY KEY,
                         username VARCHAR(50) UNIQUE NOT NULL,
@@ -59,8 +390,8 @@ static class DBManager {
                         password VARCHAR(255) NOT NULL,
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                     )
-                    """;
-                String lostItemsTableSQL = """
+                    """),
+                Step.always("""
                     CREATE TABLE IF NOT EXISTS lost_items (
                         id INT AUTO_INCREMENT PRIMARY KEY,
                         user_id INT NOT NULL,
@@ -71,8 +402,8 @@ static class DBManager {
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                         FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
                     )
-                    """;
-                String foundItemsTableSQL = """
+                    """),
+                Step.always("""
                     CREATE TABLE IF NOT EXISTS found_items (
                         id INT AUTO_INCREMENT PRIMARY KEY,
                         user_id INT NOT NULL,
@@ -83,17 +414,6235 @@ static class DBManager {
                         created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                         FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
                     )
-                    """;
-                stmt.execute(usersTableSQL);
-                stmt.execute(lostItemsTableSQL);
-                stmt.execute(foundItemsTableSQL);
-                statusLabel.setText("Database connected and tables checked.");
-                statusLabel.setForeground(Color.GREEN);
+                    """),
+                // No foreign keys: matches are only read joined to both item tables
+                Step.always("""
+                    CREATE TABLE IF NOT EXISTS matches (
+                        lost_id INT NOT NULL,
+                        found_id INT NOT NULL,
+                        score DOUBLE NOT NULL,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        PRIMARY KEY (lost_id, found_id),
+                        KEY idx_matches_found (found_id)
+                    )
+                    """))),
+            new Migration(2, "Secondary indexes on item dates, locations, names and creation time", List.of(
+                Step.addIndex("lost_items", "idx_lost_date",
+                    "ALTER TABLE lost_items ADD INDEX idx_lost_date (date_lost), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("lost_items", "idx_lost_location",
+                    "ALTER TABLE lost_items ADD INDEX idx_lost_location (location), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("lost_items", "idx_lost_created",
+                    "ALTER TABLE lost_items ADD INDEX idx_lost_created (created_at), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("lost_items", "idx_lost_name",
+                    "ALTER TABLE lost_items ADD INDEX idx_lost_name (item_name), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("found_items", "idx_found_date",
+                    "ALTER TABLE found_items ADD INDEX idx_found_date (date_found), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("found_items", "idx_found_location",
+                    "ALTER TABLE found_items ADD INDEX idx_found_location (location), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("found_items", "idx_found_created",
+                    "ALTER TABLE found_items ADD INDEX idx_found_created (created_at), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("found_items", "idx_found_name",
+                    "ALTER TABLE found_items ADD INDEX idx_found_name (item_name), ALGORITHM=INPLACE, LOCK=NONE"))),
+            new Migration(3, "FULLTEXT indexes on item names and descriptions", List.of(
+                Step.addIndex("lost_items", "ft_lost_text",
+                    "ALTER TABLE lost_items ADD FULLTEXT INDEX ft_lost_text (item_name, description), ALGORITHM=INPLACE, LOCK=SHARED"),
+                Step.addIndex("found_items", "ft_found_text",
+                    "ALTER TABLE found_items ADD FULLTEXT INDEX ft_found_text (item_name, description), ALGORITHM=INPLACE, LOCK=SHARED"))),
+            new Migration(4, "Optional item coordinates and a gazetteer of named places", List.of(
+                Step.addColumn("lost_items", "latitude",
+                    "ALTER TABLE lost_items ADD COLUMN latitude DOUBLE NULL, ADD COLUMN longitude DOUBLE NULL, ALGORITHM=INSTANT"),
+                Step.addColumn("found_items", "latitude",
+                    "ALTER TABLE found_items ADD COLUMN latitude DOUBLE NULL, ADD COLUMN longitude DOUBLE NULL, ALGORITHM=INSTANT"),
+                Step.always("""
+                    CREATE TABLE IF NOT EXISTS places (
+                        id INT AUTO_INCREMENT PRIMARY KEY,
+                        name VARCHAR(100) UNIQUE NOT NULL,
+                        latitude DOUBLE NOT NULL,
+                        longitude DOUBLE NOT NULL
+                    )
+                    """))),
+            new Migration(5, "Resolved flag on items and archive tables", List.of(
+                Step.addColumn("lost_items", "resolved",
+                    "ALTER TABLE lost_items ADD COLUMN resolved BOOLEAN NOT NULL DEFAULT FALSE, ALGORITHM=INSTANT"),
+                Step.addColumn("found_items", "resolved",
+                    "ALTER TABLE found_items ADD COLUMN resolved BOOLEAN NOT NULL DEFAULT FALSE, ALGORITHM=INSTANT"),
+                // Same columns as the item tables; ids are kept, so no AUTO_INCREMENT and no foreign keys
+                Step.always("""
+                    CREATE TABLE IF NOT EXISTS lost_items_archive (
+                        id INT PRIMARY KEY,
+                        user_id INT NOT NULL,
+                        item_name VARCHAR(100) NOT NULL,
+                        description TEXT,
+                        location VARCHAR(255),
+                        date_lost DATE,
+                        created_at TIMESTAMP NULL,
+                        latitude DOUBLE NULL,
+                        longitude DOUBLE NULL,
+                        resolved BOOLEAN NOT NULL DEFAULT FALSE,
+                        archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        KEY idx_lost_archive_date (date_lost),
+                        KEY idx_lost_archive_user (user_id)
+                    )
+                    """),
+                Step.always("""
+                    CREATE TABLE IF NOT EXISTS found_items_archive (
+                        id INT PRIMARY KEY,
+                        user_id INT NOT NULL,
+                        item_name VARCHAR(100) NOT NULL,
+                        description TEXT,
+                        location VARCHAR(255),
+                        date_found DATE,
+                        created_at TIMESTAMP NULL,
+                        latitude DOUBLE NULL,
+                        longitude DOUBLE NULL,
+                        resolved BOOLEAN NOT NULL DEFAULT FALSE,
+                        archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        KEY idx_found_archive_date (date_found),
+                        KEY idx_found_archive_user (user_id)
+                    )
+                    """))),
+            new Migration(6, "Archive time indexes for the change feed", List.of(
+                Step.addIndex("lost_items_archive", "idx_lost_archive_archived",
+                    "ALTER TABLE lost_items_archive ADD INDEX idx_lost_archive_archived (archived_at), ALGORITHM=INPLACE, LOCK=NONE"),
+                Step.addIndex("found_items_archive", "idx_found_archive_archived",
+                    "ALTER TABLE found_items_archive ADD INDEX idx_found_archive_archived (archived_at), ALGORITHM=INPLACE, LOCK=NONE")))
+        );
+
+        // Skips the server round trips when this user account last verified the same migrations against the
+        // same database URL; -Dlof.schema.alwaysVerify=true forces the full check
+        static int ensureCurrent() throws SQLException {
+            String expected = fingerprint();
+            Preferences preferences = Preferences.userRoot().node("lostandfound");
+            int latest = MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+            if (!SCHEMA_ALWAYS_VERIFY && expected.equals(preferences.get(FINGERPRINT_KEY, null))) {
+                StartupTimer.mark("schema check skipped, fingerprint matches");
+                return latest;
+            }
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("MySQL JDBC Driver not found", e);
+            }
+            int version;
+            try (Connection conn = DBManager.getConnection()) {
+                version = migrate(conn);
+            }
+            preferences.put(FINGERPRINT_KEY, expected);
+            try {
+                preferences.flush();
+            } catch (BackingStoreException e) {
+                System.err.println("Could not store the schema fingerprint: " + e.getMessage());
+            }
+            StartupTimer.mark("schema verified, version " + version);
+            return version;
+        }
+
+        private static String fingerprint() {
+            StringBuilder text = new StringBuilder(DB_URL).append('|').append(DB_USER);
+            for (Migration migration : MIGRATIONS) {
+                text.append('|').append(migration.version()).append(':').append(migration.checksum());
+            }
+            return sha256(text.toString());
+        }
+
+        private static String sha256(String text) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        // Applies every migration newer than the recorded version, in order; returns the resulting version.
+        // A named lock keeps two clients starting at once from running the same DDL.
+        static int migrate(Connection conn) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INT PRIMARY KEY,
+                        description VARCHAR(200) NOT NULL,
+                        checksum CHAR(64) NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        execution_ms INT NOT NULL
+                    )
+                    """);
+            }
+            try (PreparedStatement lock = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                lock.setString(1, LOCK_NAME);
+                lock.setInt(2, LOCK_TIMEOUT_S);
+                ResultSet rs = lock.executeQuery();
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another client to finish migrating the schema");
+                }
+            }
+            try {
+                Map<Integer, String> applied = appliedChecksums(conn);
+                int version = 0;
+                for (Migration migration : MIGRATIONS) {
+                    String checksum = applied.get(migration.version());
+                    if (checksum == null) {
+                        apply(conn, migration);
+                    } else if (!checksum.equals(migration.checksum())) {
+                        throw new SQLException("Migration " + migration.version() + " (" + migration.description()
+                                + ") was changed after it was applied");
+                    }
+                    version = migration.version();
+                }
+                return version;
+            } finally {
+                try (PreparedStatement unlock = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    unlock.setString(1, LOCK_NAME);
+                    unlock.executeQuery();
+                }
+            }
+        }
+
+        private static Map<Integer, String> appliedChecksums(Connection conn) throws SQLException {
+            Map<Integer, String> applied = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+                while (rs.next()) {
+                    applied.put(rs.getInt(1), rs.getString(2));
+                }
+            }
+            return applied;
+        }
+
+        private static void apply(Connection conn, Migration migration) throws SQLException {
+            long started = System.currentTimeMillis();
+            try (Statement stmt = conn.createStatement()) {
+                for (Step step : migration.steps()) {
+                    boolean done = step.index() != null ? indexExists(conn, step.table(), step.index())
+                            : step.column() != null && columnExists(conn, step.table(), step.column());
+                    if (!done) {
+                        stmt.execute(step.sql());
+                    }
+                }
             } catch (SQLException ex) {
-                statusLabel.setText("Database connection failed: " + ex.getMessage());
-                statusLabel.setForeground(Color.RED);
-                showError(null, "Database connection failed: " + ex.getMessage() +
-                         "\nPlease check your MySQL server and configuration.");
+                throw new SQLException("Error applying migration " + migration.version() + " ("
+                        + migration.description() + "): " + ex.getMessage(), ex);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+                pstmt.setInt(1, migration.version());
+                pstmt.setString(2, migration.description());
+                pstmt.setString(3, migration.checksum());
+                pstmt.setLong(4, System.currentTimeMillis() - started);
+                pstmt.executeUpdate();
+            }
+        }
+
+        private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement("""
+                    SELECT 1 FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?
+                    LIMIT 1
+                    """)) {
+                pstmt.setString(1, table);
+                pstmt.setString(2, index);
+                return pstmt.executeQuery().next();
+            }
+        }
+
+        private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement("""
+                    SELECT 1 FROM information_schema.columns
+                    WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?
+                    LIMIT 1
+                    """)) {
+                pstmt.setString(1, table);
+                pstmt.setString(2, column);
+                return pstmt.executeQuery().next();
+            }
+        }
+    }
+
+    // --- Optional monthly RANGE partitioning of the item tables by item date (-Dlof.partitioning=true) ---
+    // MySQL requires every unique key of a partitioned table to include the partitioning column and supports
+    // neither foreign keys nor FULLTEXT indexes on one. Converting a table therefore drops its users foreign key
+    // and its FULLTEXT index (full-text searches fall back to the substring search), fills missing item dates
+    // from created_at and widens the primary key to (id, date). The conversion copies the table once and blocks
+    // writes to it meanwhile; after that a daily check splits the empty catch-all partition so monthly
+    // partitions always exist PARTITION_MONTHS_AHEAD months ahead. Only the client started with lof.partitioning
+    // converts; every client reads the resulting layout from information_schema.
+    static class ItemPartitions {
+        private static final Logger LOG = Logger.getLogger("lof.partitions");
+        private static final String LOCK_NAME = "lof_item_partitions";
+        private static final int LOCK_TIMEOUT_S = 60;
+        private static final String CATCH_ALL = "p_future";
+        private static final int MAX_HISTORY_YEARS = 20; // older dates share the first partition
+        private static final long LAYOUT_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+        private static final String FULLTEXT_INDEXES_SQL = """
+                SELECT DISTINCT index_name FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = ? AND index_type = 'FULLTEXT'
+                """;
+        private static final ScheduledExecutorService MAINTAINER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lof-partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private static boolean installed;
+
+        // Which item tables are partitioned and which still have their FULLTEXT index, as last read
+        private record Layout(Set<ItemTable> partitioned, Set<ItemTable> fullText, long readAt) {
+        }
+
+        private static volatile Layout layout;
+
+        // Once the schema is current: reads the table layout, and with lof.partitioning converts unpartitioned
+        // tables, then keeps future partitions in place daily
+        static synchronized void install() {
+            if (installed) {
+                return;
+            }
+            installed = true;
+            DBManager.schemaReady().thenRunAsync(() -> {
+                try {
+                    readLayout();
+                } catch (SQLException e) {
+                    LOG.log(Level.WARNING, "Reading the item table layout failed: " + e.getMessage());
+                }
+                if (ITEM_PARTITIONING) {
+                    MAINTAINER.scheduleWithFixedDelay(ItemPartitions::maintain, 0, 1, TimeUnit.DAYS);
+                }
+            }, MAINTAINER);
+        }
+
+        // Whether full-text queries can use the table's index; another client may have partitioned it away,
+        // so the layout is re-read once it is LAYOUT_TTL_MS old. Runs on a data-access thread
+        static boolean hasFullTextIndex(ItemTable table) throws SQLException {
+            Layout current = layout;
+            if (current == null || System.currentTimeMillis() - current.readAt() > LAYOUT_TTL_MS) {
+                current = readLayout();
+            }
+            return current.fullText().contains(table);
+        }
+
+        // Without waiting: whether the last layout read found a partitioned table, or before the first read
+        // whether this client partitions
+        static boolean knownPartitioned() {
+            Layout current = layout;
+            return current == null ? ITEM_PARTITIONING : !current.partitioned().isEmpty();
+        }
+
+        private static Layout readLayout() throws SQLException {
+            Set<ItemTable> partitioned = EnumSet.noneOf(ItemTable.class);
+            Set<ItemTable> fullText = EnumSet.noneOf(ItemTable.class);
+            try (Connection conn = DBManager.getConnection()) {
+                for (ItemTable table : ItemTable.values()) {
+                    if (isPartitioned(conn, table)) {
+                        partitioned.add(table);
+                    }
+                    if (!names(conn, FULLTEXT_INDEXES_SQL, table.tableName).isEmpty()) {
+                        fullText.add(table);
+                    }
+                }
+            } catch (SQLException ex) {
+                throw new SQLException("Error reading item table layout: " + ex.getMessage(), ex);
+            }
+            Layout read = new Layout(partitioned, fullText, System.currentTimeMillis());
+            layout = read;
+            return read;
+        }
+
+        private static void maintain() {
+            try (Connection conn = DBManager.getConnection()) {
+                try (PreparedStatement lock = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                    lock.setString(1, LOCK_NAME);
+                    lock.setInt(2, LOCK_TIMEOUT_S);
+                    ResultSet rs = lock.executeQuery();
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        return; // Another client is maintaining the partitions
+                    }
+                }
+                try {
+                    for (ItemTable table : ItemTable.values()) {
+                        if (!isPartitioned(conn, table)) {
+                            partition(conn, table);
+                        }
+                        addFuturePartitions(conn, table);
+                    }
+                    readLayout();
+                } finally {
+                    try (PreparedStatement unlock = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                        unlock.setString(1, LOCK_NAME);
+                        unlock.executeQuery();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Item partition maintenance failed: " + e.getMessage());
+            }
+        }
+
+        private static boolean isPartitioned(Connection conn, ItemTable table) throws SQLException {
+            return !names(conn, """
+                    SELECT partition_name FROM information_schema.partitions
+                    WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL
+                    """, table.tableName).isEmpty();
+        }
+
+        // Each step can be repeated, so a conversion interrupted part-way is finished on the next run
+        private static void partition(Connection conn, ItemTable table) throws SQLException {
+            String name = table.tableName;
+            String date = table.dateColumn;
+            long started = System.currentTimeMillis();
+            try (Statement stmt = conn.createStatement()) {
+                for (String foreignKey : names(conn, """
+                        SELECT constraint_name FROM information_schema.table_constraints
+                        WHERE table_schema = DATABASE() AND table_name = ? AND constraint_type = 'FOREIGN KEY'
+                        """, name)) {
+                    stmt.execute("ALTER TABLE " + name + " DROP FOREIGN KEY " + foreignKey);
+                }
+                for (String index : names(conn, FULLTEXT_INDEXES_SQL, name)) {
+                    stmt.execute("ALTER TABLE " + name + " DROP INDEX " + index);
+                }
+                stmt.executeUpdate("UPDATE " + name + " SET " + date + " = COALESCE(DATE(created_at), CURRENT_DATE) WHERE "
+                        + date + " IS NULL");
+                stmt.execute("ALTER TABLE " + name + " MODIFY " + date + " DATE NOT NULL, DROP PRIMARY KEY, ADD PRIMARY KEY (id, "
+                        + date + ")");
+
+                YearMonth first = YearMonth.now().minusYears(MAX_HISTORY_YEARS);
+                try (ResultSet rs = stmt.executeQuery("SELECT MIN(" + date + ") FROM " + name)) {
+                    java.sql.Date oldest = rs.next() ? rs.getDate(1) : null;
+                    YearMonth oldestMonth = oldest == null ? YearMonth.now() : YearMonth.from(oldest.toLocalDate());
+                    if (oldestMonth.isAfter(first)) {
+                        first = oldestMonth;
+                    }
+                }
+                stmt.execute("ALTER TABLE " + name + " PARTITION BY RANGE COLUMNS(" + date + ") ("
+                        + monthlyPartitions(first, YearMonth.now().plusMonths(PARTITION_MONTHS_AHEAD)) + ")");
+            } catch (SQLException ex) {
+                throw new SQLException("Error partitioning " + name + ": " + ex.getMessage(), ex);
+            }
+            LOG.info("Partitioned " + name + " by " + date + " in " + (System.currentTimeMillis() - started) + " ms");
+        }
+
+        private static void addFuturePartitions(Connection conn, ItemTable table) throws SQLException {
+            List<String> monthly = names(conn, """
+                    SELECT partition_name FROM information_schema.partitions
+                    WHERE table_schema = DATABASE() AND table_name = ? AND partition_name <> 'p_future'
+                    ORDER BY partition_ordinal_position DESC
+                    """, table.tableName);
+            if (monthly.isEmpty()) {
+                return;
+            }
+            YearMonth last = YearMonth.of(Integer.parseInt(monthly.get(0).substring(1, 5)),
+                    Integer.parseInt(monthly.get(0).substring(5, 7)));
+            YearMonth target = YearMonth.now().plusMonths(PARTITION_MONTHS_AHEAD);
+            if (!last.isBefore(target)) {
+                return;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table.tableName + " REORGANIZE PARTITION " + CATCH_ALL + " INTO ("
+                        + monthlyPartitions(last.plusMonths(1), target) + ")");
+            } catch (SQLException ex) {
+                throw new SQLException("Error adding partitions to " + table.tableName + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        // pYYYYMM for each month from first to last (dates before the next month), then the catch-all
+        private static String monthlyPartitions(YearMonth first, YearMonth last) {
+            StringBuilder definitions = new StringBuilder();
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                definitions.append(String.format(Locale.ROOT, "PARTITION p%04d%02d VALUES LESS THAN ('%s'), ",
+                        month.getYear(), month.getMonthValue(), month.plusMonths(1).atDay(1)));
+            }
+            return definitions.append("PARTITION ").append(CATCH_ALL).append(" VALUES LESS THAN (MAXVALUE)").toString();
+        }
+
+        private static List<String> names(Connection conn, String sql, String table) throws SQLException {
+            List<String> names = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, table);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+            }
+            return names;
+        }
+    }
+
+    // --- Lost and found items share one shape; ItemTable captures what differs ---
+    enum ItemTable {
+        LOST("lost_items", "date_lost"),
+        FOUND("found_items", "date_found");
+
+        final String tableName;
+        final String dateColumn;
+        final String archiveName; // Where ItemArchiver moves old and resolved items
+
+        ItemTable(String tableName, String dateColumn) {
+            this.tableName = tableName;
+            this.dateColumn = dateColumn;
+            this.archiveName = tableName + "_archive";
+        }
+
+        ItemTable opposite() {
+            return this == LOST ? FOUND : LOST;
+        }
+
+        // Columns: id, user_id, item_name, description, location, item_date, latitude, longitude, username
+        String selectSql() {
+            return selectSql(tableName);
+        }
+
+        // The same columns from the item table or its archive
+        String selectSql(String from) {
+            return "SELECT i.id, i.user_id, i.item_name, i.description, i.location, i." + dateColumn
+                    + " AS item_date, i.latitude, i.longitude, u.username FROM " + from + " i JOIN users u ON i.user_id = u.id";
+        }
+
+        // Case-insensitive substring pattern for LOWER(column) LIKE ?; wildcards typed by the user match literally
+        static String likePattern(String query) {
+            return "%" + escapeLike(query.toLowerCase()) + "%";
+        }
+
+        static String escapeLike(String text) {
+            return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+
+        Item findById(Connection conn, int id) throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement(selectSql() + " WHERE i.id = ?")) {
+                pstmt.setInt(1, id);
+                ResultSet rs = pstmt.executeQuery();
+                return rs.next() ? Item.from(rs) : null;
+            }
+        }
+    }
+
+    // Latitude and longitude are NaN when the report was not placed on the map
+    record Item(int id, int userId, String name, String description, String location,
+                java.sql.Date date, String reporter, double latitude, double longitude) {
+
+        Item(int id, int userId, String name, String description, String location,
+             java.sql.Date date, String reporter) {
+            this(id, userId, name, description, location, date, reporter, Double.NaN, Double.NaN);
+        }
+
+        static Item from(ResultSet rs) throws SQLException {
+            return new Item(rs.getInt("id"), rs.getInt("user_id"), rs.getString("item_name"),
+                    rs.getString("description"), rs.getString("location"), rs.getDate("item_date"),
+                    rs.getString("username"), coordinate(rs, "latitude"), coordinate(rs, "longitude"));
+        }
+
+        private static double coordinate(ResultSet rs, String column) throws SQLException {
+            double value = rs.getDouble(column);
+            return rs.wasNull() ? Double.NaN : value;
+        }
+
+        boolean hasCoordinates() {
+            return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+        }
+
+        // Matches the column order of the item view tables
+        Object[] toRow() {
+            return new Object[] {id, name, description, location, date, reporter};
+        }
+
+        // Mirrors the exact-match SQL: case-insensitive substring of name, description, location or reporter
+        boolean matches(String query) {
+            String needle = query.trim().toLowerCase(Locale.ROOT);
+            if (needle.isEmpty()) {
+                return true;
+            }
+            for (String field : new String[] {name, description, location, reporter}) {
+                if (field != null && field.toLowerCase(Locale.ROOT).contains(needle)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Items for an item view plus an optional "did you mean" suggestion. When pages is set,
+    // items is the first keyset page and the view loads the rest on demand.
+    record SearchResults(List<Item> items, String suggestion, ItemPageModel.PageLoader pages) {
+        SearchResults(List<Item> items, String suggestion) {
+            this(items, suggestion, null);
+        }
+    }
+
+    // Growable primitive int list, used for posting lists
+    static final class IntList {
+        private int[] values;
+        private int size;
+
+        IntList() {
+            this(4);
+        }
+
+        IntList(int capacity) {
+            values = new int[Math.max(1, capacity)];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+    }
+
+    // --- Notifies in-memory structures when items are added ---
+    static class ItemEvents {
+        interface Listener {
+            void itemInserted(ItemTable table, Item item);
+        }
+
+        interface LocalListener {
+            void itemsInserted(ItemTable table, List<Item> items);
+        }
+
+        interface RemovalListener {
+            void itemsRemoved(ItemTable table, List<Integer> ids);
+        }
+
+        private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+        private static final List<RemovalListener> REMOVAL_LISTENERS = new CopyOnWriteArrayList<>();
+        private static final List<LocalListener> LOCAL_LISTENERS = new CopyOnWriteArrayList<>();
+        private static final int RECENT_IDS = 8192;
+        // Removals the change feed can read again within one archive re-read window, at the archiver's fastest pace
+        private static final int RECENT_REMOVED_IDS = (int) Math.max(RECENT_IDS,
+                2L * ARCHIVE_BATCH * (ChangeFeed.ARCHIVE_LAG_MS / Math.max(1, ARCHIVE_PAUSE_MS) + 1));
+        // Ids already published per table, so a row seen again by the change feed is not published twice
+        private static final Map<ItemTable, RecentIds> PUBLISHED = new EnumMap<>(ItemTable.class);
+        private static final Map<ItemTable, RecentIds> REMOVED = new EnumMap<>(ItemTable.class);
+
+        static {
+            for (ItemTable table : ItemTable.values()) {
+                PUBLISHED.put(table, new RecentIds(RECENT_IDS));
+                REMOVED.put(table, new RecentIds(RECENT_REMOVED_IDS));
+            }
+        }
+
+        // Told about every new item, whichever process inserted it
+        static void addListener(Listener listener) {
+            LISTENERS.add(listener);
+        }
+
+        // Told only about items inserted by this process: one item per report, a chunk at a time for imports
+        static void addLocalListener(LocalListener listener) {
+            LOCAL_LISTENERS.add(listener);
+        }
+
+        // Told when items are moved out of a table, by this process (see ItemArchiver) or another one (the
+        // change feed reads the archive tables)
+        static void addRemovalListener(RemovalListener listener) {
+            REMOVAL_LISTENERS.add(listener);
+        }
+
+        // Ids already published are dropped, so the archiving process does not hear of its own batches twice
+        static void publishRemoved(ItemTable table, List<Integer> ids) {
+            List<Integer> removed = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                if (REMOVED.get(table).add(id)) {
+                    removed.add(id);
+                }
+            }
+            if (removed.isEmpty()) {
+                return;
+            }
+            for (RemovalListener listener : REMOVAL_LISTENERS) {
+                try {
+                    listener.itemsRemoved(table, removed);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        // Called on the thread that performed the insert
+        static void publishInserted(ItemTable table, Item item) {
+            publishInserted(table, List.of(item));
+        }
+
+        // The rows of one committed chunk (see BulkImporter); local listeners get them as one list
+        static void publishInserted(ItemTable table, List<Item> items) {
+            for (Item item : items) {
+                if (PUBLISHED.get(table).add(item.id())) {
+                    notify(LISTENERS, table, item);
+                }
+            }
+            for (LocalListener listener : LOCAL_LISTENERS) {
+                try {
+                    listener.itemsInserted(table, items);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        // Called by the change feed for rows it finds in the table; rows this process inserted were already published
+        static void publishDiscovered(ItemTable table, Item item) {
+            if (PUBLISHED.get(table).add(item.id())) {
+                notify(LISTENERS, table, item);
+            }
+        }
+
+        private static void notify(List<Listener> listeners, ItemTable table, Item item) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.itemInserted(table, item);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        // The last capacity ids added, in a ring buffer with an open-addressing set over it
+        private static final class RecentIds {
+            private final int[] ring;
+            private final int[] slots; // id + 1, 0 = empty, -1 = deleted
+            private int next;
+            private int size;
+            private int deleted;
+
+            RecentIds(int capacity) {
+                ring = new int[capacity];
+                slots = new int[Integer.highestOneBit(capacity) * 4];
+            }
+
+            // False if the id is already present
+            synchronized boolean add(int id) {
+                if (find(id) >= 0) {
+                    return false;
+                }
+                if (size == ring.length) {
+                    slots[find(ring[next])] = -1;
+                    size--;
+                    if (++deleted > slots.length / 4) {
+                        rehash();
+                    }
+                }
+                ring[next] = id;
+                next = (next + 1) % ring.length;
+                size++;
+                int slot = (id * 0x9E3779B1) >>> 1 & (slots.length - 1);
+                while (slots[slot] > 0) {
+                    slot = (slot + 1) & (slots.length - 1);
+                }
+                slots[slot] = id + 1;
+                return true;
+            }
+
+            // Clears deleted markers so probe chains stay short
+            private void rehash() {
+                Arrays.fill(slots, 0);
+                deleted = 0;
+                for (int k = 0; k < size; k++) {
+                    int id = ring[(next - size + k + ring.length) % ring.length]; // The size ids before next
+                    int slot = (id * 0x9E3779B1) >>> 1 & (slots.length - 1);
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & (slots.length - 1);
+                    }
+                    slots[slot] = id + 1;
+                }
+            }
+
+            private int find(int id) {
+                int slot = (id * 0x9E3779B1) >>> 1 & (slots.length - 1);
+                for (int probes = 0; slots[slot] != 0 && probes < slots.length; probes++) {
+                    if (slots[slot] == id + 1) {
+                        return slot;
+                    }
+                    slot = (slot + 1) & (slots.length - 1);
+                }
+                return -1;
+            }
+        }
+    }
+
+    enum SearchMode {
+        EXACT("Exact match"),
+        FULLTEXT("Full-text"),
+        RANKED("Ranked"),
+        FUZZY("Fuzzy");
+
+        private final String label;
+
+        SearchMode(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // --- Input rules shared by the Swing forms and the HTTP API ---
+    static class Validation {
+        private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$");
+
+        // Null when the input is acceptable, otherwise the message to show; expects trimmed values
+        static String signUpError(String username, String email, String password) {
+            if (username.isEmpty() || email.isEmpty() || password.isEmpty()) {
+                return "Please fill in all fields";
+            }
+            if (!EMAIL.matcher(email).matches()) {
+                return "Please enter a valid email address";
+            }
+            if (password.length() < 6) {
+                return "Password must be at least 6 characters long";
+            }
+            if (username.length() > 50 || email.length() > 100) {
+                return "Username or email is too long";
+            }
+            return null;
+        }
+
+        static String reportError(String name, String description, String location, String date) {
+            if (name.isEmpty() || description.isEmpty() || location.isEmpty() || date.isEmpty()) {
+                return "Please fill in all fields";
+            }
+            try {
+                LocalDate.parse(date);
+            } catch (DateTimeParseException ex) {
+                return "Invalid date format. Use YYYY-MM-DD";
+            }
+            if (name.length() > 100 || location.length() > 255) {
+                return "Item name or location is too long";
+            }
+            return null;
+        }
+    }
+
+    // --- Repositories: the SQL for users and items, usable without any Swing frame ---
+    @FunctionalInterface
+    interface ConnectionSource {
+        Connection getConnection() throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface StatementBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    // Statements are prepared from constant SQL strings so the driver's server-side statement cache can reuse them
+    static abstract class Repository {
+        protected final ConnectionSource connections;
+
+        Repository(ConnectionSource connections) {
+            this.connections = connections;
+        }
+
+        // Timers of the repository's operations, published under LostAndFound:type=DbOperation
+        protected static Metrics.OperationTimer timer(String name) {
+            return Metrics.timer("DbOperation", name);
+        }
+
+        // Timed from connection checkout to the last row mapped
+        protected <T> List<T> list(Metrics.OperationTimer timer, String sql, StatementBinder binder, RowMapper<T> mapper,
+                                   SearchPipeline.Cancellation cancellation) throws SQLException {
+            long started = System.nanoTime();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (cancellation != null) {
+                    cancellation.track(pstmt);
+                }
+                binder.bind(pstmt);
+                ResultSet rs = pstmt.executeQuery();
+                List<T> rows = new ArrayList<>();
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+                timer.success(started, rows.size());
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                timer.failure(started, e);
+                throw e;
+            }
+        }
+
+        protected <T> T first(Metrics.OperationTimer timer, String sql, StatementBinder binder, RowMapper<T> mapper)
+                throws SQLException {
+            long started = System.nanoTime();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                binder.bind(pstmt);
+                ResultSet rs = pstmt.executeQuery();
+                T row = rs.next() ? mapper.map(rs) : null;
+                timer.success(started, row == null ? 0 : 1);
+                return row;
+            } catch (SQLException | RuntimeException e) {
+                timer.failure(started, e);
+                throw e;
+            }
+        }
+    }
+
+    static class UserRepository extends Repository {
+        static final UserRepository SHARED = new UserRepository(DBManager::getConnection);
+
+        record StoredCredentials(int userId, String passwordHash) {
+        }
+
+        private static final RowMapper<StoredCredentials> CREDENTIALS =
+                rs -> new StoredCredentials(rs.getInt("id"), rs.getString("password"));
+
+        private static final Metrics.OperationTimer EXISTS = timer("users.exists");
+        private static final Metrics.OperationTimer CREATE = timer("users.create");
+        private static final Metrics.OperationTimer FIND_CREDENTIALS = timer("users.findCredentials");
+        private static final Metrics.OperationTimer FIND_USERNAME = timer("users.findUsername");
+
+        UserRepository(ConnectionSource connections) {
+            super(connections);
+        }
+
+        boolean exists(String username, String email) throws SQLException {
+            try {
+                Integer count = first(EXISTS, "SELECT COUNT(*) FROM users WHERE username = ? OR email = ?", pstmt -> {
+                    pstmt.setString(1, username);
+                    pstmt.setString(2, email);
+                }, rs -> rs.getInt(1));
+                return count != null && count > 0;
+            } catch (SQLException ex) {
+                throw new SQLException("Error checking existing user: " + ex.getMessage(), ex);
+            }
+        }
+
+        // Stores the SHA-256 hash of the password
+        boolean create(String username, String email, String password) throws SQLException {
+            String hashedPassword = DBManager.hashPassword(password);
+            long started = System.nanoTime();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(
+                         "INSERT INTO users (username, email, password) VALUES (?, ?, ?)")) {
+                pstmt.setString(1, username);
+                pstmt.setString(2, email);
+                pstmt.setString(3, hashedPassword);
+                int inserted = pstmt.executeUpdate();
+                CREATE.success(started, inserted);
+                return inserted > 0;
+            } catch (SQLException ex) {
+                CREATE.failure(started, ex);
+                throw new SQLException("Error creating user: " + ex.getMessage(), ex);
+            } finally {
+                CredentialCache.invalidate(username); // Drops a cached "unknown user"
+            }
+        }
+
+        // Null if there is no such user
+        StoredCredentials findCredentials(String username) throws SQLException {
+            return first(FIND_CREDENTIALS, "SELECT id, password FROM users WHERE username = ?",
+                    pstmt -> pstmt.setString(1, username), CREDENTIALS);
+        }
+
+        String findUsername(int userId) throws SQLException {
+            return first(FIND_USERNAME, "SELECT username FROM users WHERE id = ?", pstmt -> pstmt.setInt(1, userId), rs -> rs.getString(1));
+        }
+    }
+
+    // Shared by the lost and found repositories; ItemTable supplies the table and date column
+    static class ItemRepository extends Repository {
+        private final ItemTable table;
+        private final String insertSql;
+        private final String byIdSql;
+        private final String likeSql;
+        private final String likeSinceSql;
+        private final String newerSql;
+        private final String betweenSql;
+        private final String fullTextSql;
+        private final String fullTextSinceSql;
+        private final Metrics.OperationTimer maxIdTimer;
+        private final Metrics.OperationTimer newerTimer;
+        private final Metrics.OperationTimer idsBetweenTimer;
+        private final Metrics.OperationTimer betweenTimer;
+        private final Metrics.OperationTimer insertTimer;
+        private final Metrics.OperationTimer byIdTimer;
+        private final Metrics.OperationTimer likeTimer;
+        private final Metrics.OperationTimer fullTextTimer;
+        private final Metrics.OperationTimer countValuesTimer;
+        private final Metrics.OperationTimer resolveTimer;
+        private final String resolveSql;
+
+        ItemRepository(ItemTable table, ConnectionSource connections) {
+            super(connections);
+            this.table = table;
+            String prefix = table.name().toLowerCase(Locale.ROOT) + ".";
+            this.maxIdTimer = timer(prefix + "maxId");
+            this.newerTimer = timer(prefix + "findNewerThan");
+            this.idsBetweenTimer = timer(prefix + "findIdsBetween");
+            this.betweenTimer = timer(prefix + "findBetween");
+            this.insertTimer = timer(prefix + "insert");
+            this.byIdTimer = timer(prefix + "findById");
+            this.likeTimer = timer(prefix + "searchLike");
+            this.fullTextTimer = timer(prefix + "searchFullText");
+            this.countValuesTimer = timer(prefix + "countValues");
+            this.resolveTimer = timer(prefix + "markResolved");
+            this.resolveSql = "UPDATE " + table.tableName + " SET resolved = TRUE WHERE id = ? AND user_id = ?";
+            this.insertSql = "INSERT INTO " + table.tableName + " (user_id, item_name, description, location, "
+                    + table.dateColumn + ", latitude, longitude) VALUES (?, ?, ?, ?, ?, ?, ?)";
+            this.byIdSql = table.selectSql() + " WHERE i.id = ?";
+            this.newerSql = table.selectSql() + " WHERE i.id > ? ORDER BY i.id LIMIT ?";
+            this.betweenSql = table.selectSql() + " WHERE i.id > ? AND i.id <= ? ORDER BY i.id";
+            // Uses the FULLTEXT index from schema migration 3
+            String select = table.selectSql();
+            this.fullTextSql = keysetSql(select, table, false, "MATCH(i.item_name, i.description) AGAINST (? IN BOOLEAN MODE)");
+            this.fullTextSinceSql = keysetSql(select, table, true, "MATCH(i.item_name, i.description) AGAINST (? IN BOOLEAN MODE)");
+            this.likeSql = keysetSql(select, table, false, LIKE_CONDITION);
+            this.likeSinceSql = keysetSql(select, table, true, LIKE_CONDITION);
+        }
+
+        // Substring match of name, description, location or reporter; bind the same pattern four times
+        static final String LIKE_CONDITION = """
+                (LOWER(i.item_name) LIKE ?
+                    OR LOWER(i.description) LIKE ?
+                    OR LOWER(i.location) LIKE ?
+                    OR LOWER(u.username) LIKE ?)""";
+
+        // Newest first from a maxId bound. The optional lower bound on the item date lets a date-partitioned
+        // table skip older partitions
+        static String keysetSql(String select, ItemTable table, boolean since, String condition) {
+            return select + " WHERE i.id <= ?" + (since ? " AND i." + table.dateColumn + " >= ?" : "")
+                    + "\n  AND " + condition + "\nORDER BY i.id DESC\nLIMIT ?";
+        }
+
+        static ItemRepository of(ItemTable table) {
+            return table == ItemTable.LOST ? LostItemRepository.SHARED : FoundItemRepository.SHARED;
+        }
+
+        ItemTable table() {
+            return table;
+        }
+
+        int maxId() throws SQLException {
+            Integer max = first(maxIdTimer, "SELECT COALESCE(MAX(id), 0) FROM " + table.tableName, pstmt -> { }, rs -> rs.getInt(1));
+            return max == null ? 0 : max;
+        }
+
+        // Up to limit items with id > afterId, oldest first; a primary key range scan
+        List<Item> findNewerThan(int afterId, int limit) throws SQLException {
+            return list(newerTimer, newerSql, pstmt -> {
+                pstmt.setInt(1, afterId);
+                pstmt.setInt(2, limit);
+            }, Item::from, null);
+        }
+
+        // Ids in (afterId, upToId], ascending; read from the primary key alone
+        List<Integer> findIdsBetween(int afterId, int upToId) throws SQLException {
+            return list(idsBetweenTimer, "SELECT id FROM " + table.tableName + " WHERE id > ? AND id <= ? ORDER BY id", pstmt -> {
+                pstmt.setInt(1, afterId);
+                pstmt.setInt(2, upToId);
+            }, rs -> rs.getInt(1), null);
+        }
+
+        // Items with ids in (afterId, upToId], oldest first
+        List<Item> findBetween(int afterId, int upToId) throws SQLException {
+            return list(betweenTimer, betweenSql, pstmt -> {
+                pstmt.setInt(1, afterId);
+                pstmt.setInt(2, upToId);
+            }, Item::from, null);
+        }
+
+        Item insert(int userId, String name, String description, String location, LocalDate date) throws SQLException {
+            return insert(userId, name, description, location, date, Double.NaN, Double.NaN);
+        }
+
+        // Returns the stored item (null if nothing was inserted) and publishes it to ItemEvents listeners.
+        // NaN coordinates are stored as NULL
+        Item insert(int userId, String name, String description, String location, LocalDate date,
+                    double latitude, double longitude) throws SQLException {
+            Item item = null;
+            long started = System.nanoTime();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setInt(1, userId);
+                pstmt.setString(2, name);
+                pstmt.setString(3, description);
+                pstmt.setString(4, location);
+                pstmt.setDate(5, java.sql.Date.valueOf(date));
+                if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                    pstmt.setNull(6, Types.DOUBLE);
+                    pstmt.setNull(7, Types.DOUBLE);
+                } else {
+                    pstmt.setDouble(6, latitude);
+                    pstmt.setDouble(7, longitude);
+                }
+                if (pstmt.executeUpdate() == 0) {
+                    insertTimer.success(started, 0);
+                    return null;
+                }
+                ResultSet keys = pstmt.getGeneratedKeys();
+                if (keys.next()) {
+                    item = table.findById(conn, keys.getInt(1));
+                }
+                insertTimer.success(started, 1);
+            } catch (SQLException | RuntimeException e) {
+                insertTimer.failure(started, e);
+                throw e;
+            }
+            if (item != null) {
+                ItemEvents.publishInserted(table, item);
+            }
+            return item;
+        }
+
+        // Only the reporter can resolve an item; ItemArchiver moves resolved items to the archive on its next run
+        boolean markResolved(int id, int userId) throws SQLException {
+            long started = System.nanoTime();
+            try (Connection conn = connections.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(resolveSql)) {
+                pstmt.setInt(1, id);
+                pstmt.setInt(2, userId);
+                int updated = pstmt.executeUpdate();
+                resolveTimer.success(started, updated);
+                return updated > 0;
+            } catch (SQLException ex) {
+                resolveTimer.failure(started, ex);
+                throw new SQLException("Error resolving item: " + ex.getMessage(), ex);
+            }
+        }
+
+        record ValueCount(String value, int count) {
+        }
+
+        // Each distinct item_name or location with the number of reports using it
+        List<ValueCount> countValues(String column) throws SQLException {
+            if (!column.equals("item_name") && !column.equals("location")) {
+                throw new IllegalArgumentException("Cannot count values of " + column);
+            }
+            return list(countValuesTimer, "SELECT " + column + ", COUNT(*) FROM " + table.tableName + " GROUP BY " + column,
+                    pstmt -> { }, rs -> new ValueCount(rs.getString(1), rs.getInt(2)), null);
+        }
+
+        Item findById(int id) throws SQLException {
+            return first(byIdTimer, byIdSql, pstmt -> pstmt.setInt(1, id), Item::from);
+        }
+
+        // Keyset page of the substring search: items with id <= maxId dated on or after since (null for any date),
+        // newest first
+        List<Item> searchLike(String query, LocalDate since, int maxId, int limit, SearchPipeline.Cancellation cancellation)
+                throws SQLException {
+            String likeQuery = ItemTable.likePattern(query);
+            return list(likeTimer, since == null ? likeSql : likeSinceSql, pstmt -> {
+                int p = 1;
+                pstmt.setInt(p++, maxId);
+                if (since != null) {
+                    pstmt.setDate(p++, java.sql.Date.valueOf(since));
+                }
+                for (int i = 0; i < 4; i++) {
+                    pstmt.setString(p++, likeQuery);
+                }
+                pstmt.setInt(p, limit);
+            }, Item::from, cancellation);
+        }
+
+        // Keyset page of items whose name or description contains every query word (the last one as a prefix).
+        // Words shorter than the server's minimum full-text token length (3 by default) cannot be matched
+        // through the index, so a query made only of those falls back to the substring search, as does every
+        // query while the table has no FULLTEXT index (dropped when it was partitioned, by any client).
+        List<Item> searchFullText(String query, LocalDate since, int maxId, int limit,
+                                  SearchPipeline.Cancellation cancellation) throws SQLException {
+            StringBuilder terms = new StringBuilder();
+            for (String token : SearchIndex.tokenize(query)) {
+                if (token.length() >= 3) {
+                    terms.append(terms.length() == 0 ? "+" : " +").append(token).append('*');
+                }
+            }
+            if (terms.length() == 0 || !ItemPartitions.hasFullTextIndex(table)) {
+                return searchLike(query, since, maxId, limit, cancellation);
+            }
+            String booleanQuery = terms.toString();
+            return list(fullTextTimer, since == null ? fullTextSql : fullTextSinceSql, pstmt -> {
+                int p = 1;
+                pstmt.setInt(p++, maxId);
+                if (since != null) {
+                    pstmt.setDate(p++, java.sql.Date.valueOf(since));
+                }
+                pstmt.setString(p++, booleanQuery);
+                pstmt.setInt(p, limit);
+            }, Item::from, cancellation);
+        }
+    }
+
+    static class LostItemRepository extends ItemRepository {
+        static final LostItemRepository SHARED = new LostItemRepository(DBManager::getConnection);
+
+        LostItemRepository(ConnectionSource connections) {
+            super(ItemTable.LOST, connections);
+        }
+    }
+
+    static class FoundItemRepository extends ItemRepository {
+        static final FoundItemRepository SHARED = new FoundItemRepository(DBManager::getConnection);
+
+        FoundItemRepository(ConnectionSource connections) {
+            super(ItemTable.FOUND, connections);
+        }
+    }
+
+    // A named spot on campus from the places table; reports pick one to get coordinates
+    record Place(String name, double latitude, double longitude) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // The places table is maintained by an administrator; the application only reads it
+    static class PlaceRepository extends Repository {
+        static final PlaceRepository SHARED = new PlaceRepository(DBManager::getConnection);
+
+        private static final Metrics.OperationTimer ALL = timer("places.all");
+
+        PlaceRepository(ConnectionSource connections) {
+            super(connections);
+        }
+
+        List<Place> all() throws SQLException {
+            return list(ALL, "SELECT name, latitude, longitude FROM places ORDER BY name", pstmt -> { },
+                    rs -> new Place(rs.getString(1), rs.getDouble(2), rs.getDouble(3)), null);
+        }
+    }
+
+    // Items moved out of the item tables by ItemArchiver; searched only on request
+    static class ArchiveRepository extends Repository {
+        static final ArchiveRepository SHARED = new ArchiveRepository(DBManager::getConnection);
+
+        private final Map<ItemTable, String> likeSql = new EnumMap<>(ItemTable.class);
+        private final Map<ItemTable, Metrics.OperationTimer> likeTimers = new EnumMap<>(ItemTable.class);
+        private final Map<ItemTable, Metrics.OperationTimer> archivedTimers = new EnumMap<>(ItemTable.class);
+        private final Metrics.OperationTimer nowTimer = timer("archive.now");
+
+        record Archived(int id, Timestamp archivedAt) {
+        }
+
+        ArchiveRepository(ConnectionSource connections) {
+            super(connections);
+            for (ItemTable table : ItemTable.values()) {
+                likeSql.put(table, ItemRepository.keysetSql(table.selectSql(table.archiveName), table, false,
+                        ItemRepository.LIKE_CONDITION));
+                likeTimers.put(table, timer(table.name().toLowerCase(Locale.ROOT) + ".archive.searchLike"));
+                archivedTimers.put(table, timer(table.name().toLowerCase(Locale.ROOT) + ".archive.findArchivedAfter"));
+            }
+        }
+
+        // The database clock, which also stamps archived_at
+        Timestamp now() throws SQLException {
+            return first(nowTimer, "SELECT CURRENT_TIMESTAMP", pstmt -> { }, rs -> rs.getTimestamp(1));
+        }
+
+        // Keyset page of rows archived at or after since and after the (archived_at, id) of after, in that
+        // order; uses the archived_at index, whose entries end with the primary key
+        List<Archived> findArchivedAfter(ItemTable table, Timestamp since, Archived after, int limit) throws SQLException {
+            return list(archivedTimers.get(table), "SELECT id, archived_at FROM " + table.archiveName
+                    + " WHERE archived_at >= ? AND (archived_at > ? OR (archived_at = ? AND id > ?))"
+                    + " ORDER BY archived_at, id LIMIT ?", pstmt -> {
+                pstmt.setTimestamp(1, since);
+                pstmt.setTimestamp(2, after.archivedAt());
+                pstmt.setTimestamp(3, after.archivedAt());
+                pstmt.setInt(4, after.id());
+                pstmt.setInt(5, limit);
+            }, rs -> new Archived(rs.getInt(1), rs.getTimestamp(2)), null);
+        }
+
+        // Keyset page of the substring search over the archive: items with id <= maxId, newest first
+        List<Item> searchLike(ItemTable table, String query, int maxId, int limit, SearchPipeline.Cancellation cancellation)
+                throws SQLException {
+            String likeQuery = ItemTable.likePattern(query);
+            return list(likeTimers.get(table), likeSql.get(table), pstmt -> {
+                pstmt.setInt(1, maxId);
+                for (int i = 2; i <= 5; i++) {
+                    pstmt.setString(i, likeQuery);
+                }
+                pstmt.setInt(6, limit);
+            }, Item::from, cancellation);
+        }
+    }
+
+    // --- Background archival (-Dlof.archive=true): moves resolved items, and items dated more than
+    // ARCHIVE_MAX_AGE_DAYS ago, into the archive tables ---
+    // Each batch is one short transaction over a range of at most ARCHIVE_BATCH candidate ids: copy the rows
+    // into the archive, then delete exactly the rows that were copied and the matches that point at them.
+    // Row locks are held only for that range
+    // and only until the commit, and a connection is borrowed per batch. Between batches the job sleeps at
+    // least ARCHIVE_PAUSE_MS and at least four times as long as the batch took, and it waits while other
+    // threads are queueing for a pooled connection. Run it in one process (e.g. the --server); a second
+    // archiver finds the rows already moved.
+    static class ItemArchiver {
+        record Stats(long runs, long batches, long archived, long failures, long throttledMs, long lastRunMs) {
+        }
+
+        private static final String COLUMNS = "id, user_id, item_name, description, location, %s, created_at, "
+                + "latitude, longitude, resolved";
+        private static final long MAX_WAIT_FOR_POOL_MS = 5_000;
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lof-archiver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        private static final LongAdder RUNS = new LongAdder();
+        private static final LongAdder BATCHES = new LongAdder();
+        private static final LongAdder ARCHIVED = new LongAdder();
+        private static final LongAdder FAILURES = new LongAdder();
+        private static final LongAdder THROTTLED_MS = new LongAdder();
+        private static volatile long lastRunMs;
+        private static boolean installed;
+
+        static synchronized void install() {
+            if (!ARCHIVE_ENABLED || installed) {
+                return;
+            }
+            installed = true;
+            Metrics.register("Archiver", "shared", ItemArchiver::stats, null);
+            DBManager.schemaReady().thenRun(() ->
+                SCHEDULER.scheduleWithFixedDelay(ItemArchiver::run, 0, ARCHIVE_INTERVAL_MS, TimeUnit.MILLISECONDS));
+        }
+
+        static Stats stats() {
+            return new Stats(RUNS.sum(), BATCHES.sum(), ARCHIVED.sum(), FAILURES.sum(), THROTTLED_MS.sum(), lastRunMs);
+        }
+
+        private static void run() {
+            long started = System.currentTimeMillis();
+            LocalDate cutoff = ARCHIVE_MAX_AGE_DAYS > 0 ? LocalDate.now().minusDays(ARCHIVE_MAX_AGE_DAYS) : null;
+            try {
+                for (ItemTable table : ItemTable.values()) {
+                    archive(table, cutoff);
+                }
+            } catch (SQLException | RuntimeException e) {
+                FAILURES.increment();
+                System.err.println("Archiving items failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                RUNS.increment();
+                lastRunMs = System.currentTimeMillis() - started;
+            }
+        }
+
+        // Walks the table once in id order
+        private static void archive(ItemTable table, LocalDate cutoff) throws SQLException, InterruptedException {
+            String stale = cutoff == null ? "resolved" : "(resolved OR " + table.dateColumn + " < ?)";
+            String columns = String.format(COLUMNS, table.dateColumn);
+            String candidatesSql = "SELECT id FROM " + table.tableName + " WHERE id > ? AND " + stale
+                    + " ORDER BY id LIMIT " + ARCHIVE_BATCH;
+            String copySql = "INSERT INTO " + table.archiveName + " (" + columns + ") SELECT " + columns + " FROM "
+                    + table.tableName + " WHERE id BETWEEN ? AND ? AND " + stale;
+            String deleteSql = "DELETE i FROM " + table.tableName + " i JOIN " + table.archiveName
+                    + " a ON a.id = i.id WHERE i.id BETWEEN ? AND ?";
+            String deleteMatchesSql = "DELETE m FROM matches m JOIN " + table.archiveName + " a ON a.id = m."
+                    + (table == ItemTable.LOST ? "lost_id" : "found_id") + " WHERE a.id BETWEEN ? AND ?";
+            int afterId = 0;
+            while (true) {
+                throttle();
+                long batchStarted = System.nanoTime();
+                List<Integer> ids = new ArrayList<>();
+                try (Connection conn = DBManager.getConnection()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(candidatesSql)) {
+                        pstmt.setInt(1, afterId);
+                        if (cutoff != null) {
+                            pstmt.setDate(2, java.sql.Date.valueOf(cutoff));
+                        }
+                        ResultSet rs = pstmt.executeQuery();
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        return;
+                    }
+                    int first = ids.get(0);
+                    int last = ids.get(ids.size() - 1);
+                    conn.setAutoCommit(false);
+                    try (PreparedStatement copy = conn.prepareStatement(copySql);
+                         PreparedStatement delete = conn.prepareStatement(deleteSql);
+                         PreparedStatement deleteMatches = conn.prepareStatement(deleteMatchesSql)) {
+                        copy.setInt(1, first);
+                        copy.setInt(2, last);
+                        if (cutoff != null) {
+                            copy.setDate(3, java.sql.Date.valueOf(cutoff));
+                        }
+                        copy.executeUpdate();
+                        delete.setInt(1, first);
+                        delete.setInt(2, last);
+                        ARCHIVED.add(delete.executeUpdate());
+                        deleteMatches.setInt(1, first);
+                        deleteMatches.setInt(2, last);
+                        deleteMatches.executeUpdate();
+                        conn.commit();
+                    } catch (SQLException ex) {
+                        conn.rollback();
+                        throw new SQLException("Error archiving " + table.tableName + " ids " + first + "-" + last
+                                + ": " + ex.getMessage(), ex);
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                    afterId = last;
+                }
+                BATCHES.increment();
+                ItemEvents.publishRemoved(table, ids);
+                long batchMs = (System.nanoTime() - batchStarted) / 1_000_000;
+                Thread.sleep(Math.max(ARCHIVE_PAUSE_MS, 4 * batchMs));
+            }
+        }
+
+        // Waits, up to a bound, while interactive work is queueing for a connection
+        private static void throttle() throws InterruptedException {
+            long waited = 0;
+            while (DBManager.poolStats().waiting() > 0 && waited < MAX_WAIT_FOR_POOL_MS) {
+                Thread.sleep(ARCHIVE_PAUSE_MS);
+                waited += ARCHIVE_PAUSE_MS;
+            }
+            THROTTLED_MS.add(waited);
+        }
+    }
+
+    // Stored matches (see MatchEngine) joined with both reports for display
+    static class MatchRepository extends Repository {
+        static final MatchRepository SHARED = new MatchRepository(DBManager::getConnection);
+
+        record UserMatch(double score, String lostName, String lostLocation, java.sql.Date dateLost, String lostBy,
+                         String foundName, String foundLocation, java.sql.Date dateFound, String foundBy,
+                         int lostId, int foundId) {
+            // Matches the column order of MatchesFrame
+            Object[] toRow() {
+                return new Object[] {String.format(Locale.ROOT, "%.0f%%", score * 100), lostName, lostLocation, dateLost, lostBy,
+                    foundName, foundLocation, dateFound, foundBy};
+            }
+        }
+
+        private static final RowMapper<UserMatch> USER_MATCH = rs -> new UserMatch(rs.getDouble(1),
+                rs.getString(2), rs.getString(3), rs.getDate(4), rs.getString(5),
+                rs.getString(6), rs.getString(7), rs.getDate(8), rs.getString(9), rs.getInt(10), rs.getInt(11));
+
+        private static final Metrics.OperationTimer FOR_USER = timer("matches.forUser");
+
+        MatchRepository(ConnectionSource connections) {
+            super(connections);
+        }
+
+        // Best matches where the user reported either side and neither side is resolved
+        List<UserMatch> forUser(int userId, int limit) throws SQLException {
+            String sql = """
+                SELECT m.score, l.item_name, l.location, l.date_lost, ul.username,
+                       f.item_name, f.location, f.date_found, uf.username, m.lost_id, m.found_id
+                FROM matches m
+                JOIN lost_items l ON m.lost_id = l.id
+                JOIN found_items f ON m.found_id = f.id
+                JOIN users ul ON l.user_id = ul.id
+                JOIN users uf ON f.user_id = uf.id
+                WHERE (l.user_id = ? OR f.user_id = ?) AND NOT l.resolved AND NOT f.resolved
+                ORDER BY m.score DESC
+                LIMIT ?
+                """;
+            return list(FOR_USER, sql, pstmt -> {
+                pstmt.setInt(1, userId);
+                pstmt.setInt(2, userId);
+                pstmt.setInt(3, limit);
+            }, USER_MATCH, null);
+        }
+    }
+
+    // --- Lock-free latency histogram: log-linear buckets, about 6% relative error, no allocation per record ---
+    static class LatencyHistogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int BUCKETS = (63 - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(bucketOf(value));
+            count.increment();
+            totalNanos.add(value);
+            maxNanos.accumulate(value);
+        }
+
+        long count() {
+            return count.sum();
+        }
+
+        long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        long maxNanos() {
+            return maxNanos.get();
+        }
+
+        double meanNanos() {
+            long n = count();
+            return n == 0 ? 0 : (double) totalNanos() / n;
+        }
+
+        // Upper bound of the bucket holding the given percentile (0-100); 0 when empty
+        long percentileNanos(double percentile) {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxNanos());
+                }
+            }
+            return maxNanos();
+        }
+
+        // Cumulative counts at the given upper bounds (nanoseconds, ascending), Prometheus "le" style
+        long[] cumulativeCounts(long[] boundsNanos) {
+            long[] cumulative = new long[boundsNanos.length];
+            int b = 0;
+            long seen = 0;
+            for (int i = 0; i < BUCKETS && b < boundsNanos.length; i++) {
+                while (b < boundsNanos.length && upperBound(i) > boundsNanos[b]) {
+                    cumulative[b++] = seen;
+                }
+                seen += counts.get(i);
+            }
+            while (b < boundsNanos.length) {
+                cumulative[b++] = seen;
+            }
+            return cumulative;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+
+        // Values below 16 get a bucket each; above that, 16 buckets per power of two
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        }
+
+        static long upperBound(int bucket) {
+            return bucket + 1 == BUCKETS ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+        }
+    }
+
+    // --- Runtime metrics published as JMX MBeans in the "LostAndFound" domain (jconsole, jmxterm, scrapers) ---
+    static class Metrics {
+        private static final String DOMAIN = "LostAndFound";
+        // Bucket bounds of the published histograms, in milliseconds
+        private static final double[] BUCKET_BOUNDS_MS = {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500,
+            1000, 2500, 5000, 10000};
+        private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_MS.length];
+        private static final Map<String, OperationTimer> TIMERS = new ConcurrentHashMap<>();
+
+        static {
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                BUCKET_BOUNDS_NANOS[i] = (long) (BUCKET_BOUNDS_MS[i] * 1_000_000);
+            }
+        }
+
+        record TimerStats(long calls, long errors, long cancelled, double errorRate, long rows, double meanMs,
+                          double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+                          double[] bucketBoundsMs, long[] bucketCounts) {
+        }
+
+        // Calls, latency, rows and errors of one operation. Callers keep the timer in a field and pass
+        // System.nanoTime() from the start of the call; recording does not allocate.
+        static final class OperationTimer {
+            private final LatencyHistogram latency = new LatencyHistogram();
+            private final LongAdder errors = new LongAdder();
+            private final LongAdder cancelled = new LongAdder();
+            private final LongAdder rows = new LongAdder();
+
+            void success(long startedNanos, long rowCount) {
+                latency.record(System.nanoTime() - startedNanos);
+                rows.add(rowCount);
+            }
+
+            // A search superseded by a newer query (SQLState 70100) is counted as cancelled, not as an error
+            void failure(long startedNanos, Throwable error) {
+                latency.record(System.nanoTime() - startedNanos);
+                if (error instanceof SQLException sql && "70100".equals(sql.getSQLState())) {
+                    cancelled.increment();
+                } else {
+                    errors.increment();
+                }
+            }
+
+            TimerStats stats() {
+                long calls = latency.count();
+                long errorCount = errors.sum();
+                return new TimerStats(calls, errorCount, cancelled.sum(), calls == 0 ? 0 : (double) errorCount / calls,
+                        rows.sum(), latency.meanNanos() / 1e6, latency.percentileNanos(50) / 1e6,
+                        latency.percentileNanos(90) / 1e6, latency.percentileNanos(99) / 1e6,
+                        latency.percentileNanos(99.9) / 1e6, latency.maxNanos() / 1e6,
+                        BUCKET_BOUNDS_MS.clone(), latency.cumulativeCounts(BUCKET_BOUNDS_NANOS));
+            }
+
+            void reset() {
+                latency.reset();
+                errors.reset();
+                cancelled.reset();
+                rows.reset();
+            }
+        }
+
+        // One timer per name, registered as LostAndFound:type=<type>,name=<name> on first use
+        static OperationTimer timer(String type, String name) {
+            return TIMERS.computeIfAbsent(type + "/" + name, key -> {
+                OperationTimer timer = new OperationTimer();
+                register(type, name, timer::stats, timer::reset);
+                return timer;
+            });
+        }
+
+        // Publishes the components of a stats record as read-only attributes; reset may be null
+        static void register(String type, String name, Supplier<? extends Record> stats, Runnable reset) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objectName = objectName(type, name);
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+                server.registerMBean(new StatsBean(stats, reset), objectName);
+            } catch (JMException | RuntimeException e) {
+                System.err.println("Could not register metrics " + type + "/" + name + ": " + e.getMessage());
+            }
+        }
+
+        static void unregister(String type, String name) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objectName = objectName(type, name);
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                System.err.println("Could not unregister metrics " + type + "/" + name + ": " + e.getMessage());
+            }
+        }
+
+        private static ObjectName objectName(String type, String name) throws JMException {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+        }
+
+        // Reads the record afresh for every getAttribute; getAttributes reads it once for a consistent view
+        private static final class StatsBean implements DynamicMBean {
+            private final Supplier<? extends Record> stats;
+            private final Runnable reset;
+            private final Map<String, RecordComponent> components = new LinkedHashMap<>();
+            private final MBeanInfo info;
+
+            StatsBean(Supplier<? extends Record> stats, Runnable reset) {
+                this.stats = stats;
+                this.reset = reset;
+                Class<?> type = stats.get().getClass();
+                List<MBeanAttributeInfo> attributes = new ArrayList<>();
+                for (RecordComponent component : type.getRecordComponents()) {
+                    String name = Character.toUpperCase(component.getName().charAt(0)) + component.getName().substring(1);
+                    components.put(name, component);
+                    attributes.add(new MBeanAttributeInfo(name, component.getType().getName(), component.getName(),
+                            true, false, false));
+                }
+                MBeanOperationInfo[] operations = reset == null ? new MBeanOperationInfo[0]
+                        : new MBeanOperationInfo[] {new MBeanOperationInfo("reset", "Clears the counters",
+                                new javax.management.MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)};
+                this.info = new MBeanInfo(type.getName(), type.getSimpleName(),
+                        attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+            }
+
+            @Override
+            public Object getAttribute(String attribute) throws AttributeNotFoundException, ReflectionException {
+                return read(stats.get(), attribute);
+            }
+
+            @Override
+            public AttributeList getAttributes(String[] attributes) {
+                Record snapshot = stats.get();
+                AttributeList list = new AttributeList();
+                for (String attribute : attributes) {
+                    try {
+                        list.add(new Attribute(attribute, read(snapshot, attribute)));
+                    } catch (JMException e) {
+                        // Unknown names are left out, as the DynamicMBean contract allows
+                    }
+                }
+                return list;
+            }
+
+            private Object read(Record snapshot, String attribute) throws AttributeNotFoundException, ReflectionException {
+                RecordComponent component = components.get(attribute);
+                if (component == null) {
+                    throw new AttributeNotFoundException(attribute);
+                }
+                try {
+                    return component.getAccessor().invoke(snapshot);
+                } catch (ReflectiveOperationException e) {
+                    throw new ReflectionException(e);
+                }
+            }
+
+            @Override
+            public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+                throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+            }
+
+            @Override
+            public AttributeList setAttributes(AttributeList attributes) {
+                return new AttributeList();
+            }
+
+            @Override
+            public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException {
+                if (reset == null || !actionName.equals("reset")) {
+                    throw new MBeanException(new UnsupportedOperationException(actionName));
+                }
+                reset.run();
+                return null;
+            }
+
+            @Override
+            public MBeanInfo getMBeanInfo() {
+                return info;
+            }
+        }
+    }
+
+    // --- Bounded, self-validating JDBC connection pool ---
+    static class ConnectionPool {
+        private final String url;
+        private final String user;
+        private final String password;
+        private final int minIdle;
+        private final int maxSize;
+        private final long acquireTimeoutMs;
+        private final long maxIdleMs;
+        private final long validateAfterMs;
+        private final long leakThresholdMs;
+
+        // Guards every field below; never held while talking to the server
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>(); // most recently used first
+        private final Map<PooledConnection, Boolean> borrowed = new IdentityHashMap<>();
+        private int total; // open connections plus ones being opened
+        private int waiting;
+        private boolean shutdown;
+        private long created, destroyed, borrows, timeouts, validationFailures, leaks;
+        private final LatencyHistogram acquireLatency = new LatencyHistogram(); // borrow() calls, including timeouts
+
+        private final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lof-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+
+        ConnectionPool(String url, String user, String password, int minIdle, int maxSize,
+                       long acquireTimeoutMs, long maxIdleMs, long validateAfterMs, long leakThresholdMs) {
+            if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size: min=" + minIdle + ", max=" + maxSize);
+            }
+            this.url = url;
+            this.user = user;
+            this.password = password;
+            this.minIdle = minIdle;
+            this.maxSize = maxSize;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+            this.maxIdleMs = maxIdleMs;
+            this.validateAfterMs = validateAfterMs;
+            this.leakThresholdMs = leakThresholdMs;
+            long period = Math.max(1_000, Math.min(maxIdleMs, leakThresholdMs) / 4);
+            housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+        }
+
+        Connection borrow() throws SQLException {
+            long started = System.nanoTime();
+            try {
+                return acquire(started + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs));
+            } finally {
+                acquireLatency.record(System.nanoTime() - started);
+            }
+        }
+
+        private Connection acquire(long deadline) throws SQLException {
+            while (true) {
+                PooledConnection pc = null;
+                lock.lock();
+                try {
+                    while (pc == null) {
+                        if (shutdown) {
+                            throw new SQLException("Connection pool has been shut down");
+                        }
+                        pc = idle.pollFirst();
+                        if (pc == null && total < maxSize) {
+                            total++;
+                            break;
+                        }
+                        if (pc == null) {
+                            long remaining = deadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                timeouts++;
+                                throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs
+                                        + " ms waiting for a database connection (" + stats() + ")");
+                            }
+                            waiting++;
+                            try {
+                                released.awaitNanos(remaining);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new SQLException("Interrupted while waiting for a database connection", e);
+                            } finally {
+                                waiting--;
+                            }
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                if (pc == null) {
+                    pc = open(); // slot was reserved above
+                } else if (System.currentTimeMillis() - pc.lastUsed > validateAfterMs && !isUsable(pc)) {
+                    lock.lock();
+                    try {
+                        validationFailures++;
+                    } finally {
+                        lock.unlock();
+                    }
+                    destroy(pc);
+                    continue;
+                }
+                return checkout(pc);
+            }
+        }
+
+        private PooledConnection open() throws SQLException {
+            try {
+                PooledConnection pc = new PooledConnection(DriverManager.getConnection(url, user, password));
+                lock.lock();
+                try {
+                    created++;
+                } finally {
+                    lock.unlock();
+                }
+                return pc;
+            } catch (SQLException | RuntimeException e) {
+                lock.lock();
+                try {
+                    total--;
+                    released.signal();
+                } finally {
+                    lock.unlock();
+                }
+                throw e;
+            }
+        }
+
+        private Connection checkout(PooledConnection pc) {
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowSite = leakThresholdMs > 0 && POOL_LEAK_STACKS ? new Throwable("Connection borrowed here") : null;
+            pc.borrower = Thread.currentThread();
+            pc.sql = null;
+            pc.leakReported = false;
+            lock.lock();
+            try {
+                borrowed.put(pc, Boolean.TRUE);
+                borrows++;
+            } finally {
+                lock.unlock();
+            }
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new Handle(pc));
+        }
+
+        private void release(PooledConnection pc) {
+            pc.borrower = null;
+            pc.sql = null;
+            boolean reusable = !pc.broken;
+            if (reusable) {
+                try {
+                    if (!pc.physical.getAutoCommit()) {
+                        pc.physical.rollback();
+                        pc.physical.setAutoCommit(true);
+                    }
+                    pc.physical.clearWarnings();
+                } catch (SQLException e) {
+                    reusable = false;
+                }
+            }
+            lock.lock();
+            try {
+                borrowed.remove(pc);
+                if (reusable && !shutdown) {
+                    pc.lastUsed = System.currentTimeMillis();
+                    pc.borrowSite = null;
+                    idle.offerFirst(pc);
+                    released.signal();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            destroy(pc);
+        }
+
+        private boolean isUsable(PooledConnection pc) {
+            try {
+                return pc.physical.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void destroy(PooledConnection pc) {
+            try {
+                pc.physical.close();
+            } catch (SQLException ignored) {
+                // Connection is being discarded anyway
+            }
+            lock.lock();
+            try {
+                total--;
+                destroyed++;
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Evicts connections idle for too long, tops the pool up to minIdle and reports leaks
+        private void housekeep() {
+            long now = System.currentTimeMillis();
+            List<PooledConnection> evicted = new ArrayList<>();
+            List<PooledConnection> leaked = new ArrayList<>();
+            int missing;
+            lock.lock();
+            try {
+                if (shutdown) {
+                    return;
+                }
+                Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+                while (oldestFirst.hasNext() && idle.size() > minIdle) {
+                    PooledConnection pc = oldestFirst.next();
+                    if (now - pc.lastUsed > maxIdleMs) {
+                        oldestFirst.remove();
+                        evicted.add(pc);
+                    }
+                }
+                if (leakThresholdMs > 0) {
+                    for (PooledConnection pc : borrowed.keySet()) {
+                        if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMs) {
+                            pc.leakReported = true;
+                            leaks++;
+                            leaked.add(pc);
+                        }
+                    }
+                }
+                missing = Math.max(0, Math.min(minIdle - idle.size(), maxSize - total));
+                total += missing;
+            } finally {
+                lock.unlock();
+            }
+
+            for (PooledConnection pc : evicted) {
+                destroy(pc);
+            }
+            for (PooledConnection pc : leaked) {
+                Thread borrower = pc.borrower;
+                System.err.println("Possible connection leak: connection held for " + (now - pc.borrowedAt) + " ms by "
+                        + (borrower == null ? "(returned)" : borrower.getName()) + ", last statement " + pc.sql
+                        + (pc.borrowSite == null ? " (-Dlof.pool.leakStacks=true records where it was borrowed)" : ""));
+                if (pc.borrowSite != null) {
+                    pc.borrowSite.printStackTrace();
+                }
+            }
+            for (int i = 0; i < missing; i++) {
+                try {
+                    PooledConnection pc = open();
+                    lock.lock();
+                    try {
+                        idle.offerLast(pc);
+                        released.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                } catch (SQLException e) {
+                    // Server unavailable; open() released this slot, give back the rest
+                    lock.lock();
+                    try {
+                        total -= missing - i - 1;
+                    } finally {
+                        lock.unlock();
+                    }
+                    break;
+                }
+            }
+        }
+
+        void shutdown() {
+            List<PooledConnection> toClose;
+            lock.lock();
+            try {
+                if (shutdown) {
+                    return;
+                }
+                shutdown = true;
+                toClose = new ArrayList<>(idle);
+                idle.clear();
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            housekeeper.shutdownNow();
+            for (PooledConnection pc : toClose) {
+                destroy(pc);
+            }
+        }
+
+        record InFlight(Thread thread, String sql, long ageMs) {
+        }
+
+        // Borrowed connections that have prepared a statement
+        List<InFlight> inFlight() {
+            List<PooledConnection> active;
+            lock.lock();
+            try {
+                active = new ArrayList<>(borrowed.keySet());
+            } finally {
+                lock.unlock();
+            }
+            long now = System.currentTimeMillis();
+            List<InFlight> inFlight = new ArrayList<>();
+            for (PooledConnection pc : active) {
+                Thread thread = pc.borrower;
+                String sql = pc.sql;
+                if (thread != null && sql != null) {
+                    inFlight.add(new InFlight(thread, sql, now - pc.sqlSince));
+                }
+            }
+            return inFlight;
+        }
+
+        Stats stats() {
+            lock.lock();
+            try {
+                return new Stats(total, borrowed.size(), idle.size(), waiting, maxSize,
+                        created, destroyed, borrows, timeouts, validationFailures, leaks,
+                        acquireLatency.percentileNanos(50) / 1e6, acquireLatency.percentileNanos(99) / 1e6,
+                        acquireLatency.maxNanos() / 1e6);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        record Stats(int total, int active, int idle, int waiting, int maxSize, long created, long destroyed,
+                     long borrows, long timeouts, long validationFailures, long leaks,
+                     double acquireP50Ms, double acquireP99Ms, double acquireMaxMs) {
+            @Override
+            public String toString() {
+                return "pool[total=" + total + "/" + maxSize + ", active=" + active + ", idle=" + idle
+                        + ", waiting=" + waiting + ", created=" + created + ", destroyed=" + destroyed
+                        + ", borrows=" + borrows + ", timeouts=" + timeouts
+                        + ", validationFailures=" + validationFailures + ", leaks=" + leaks
+                        + String.format(Locale.ROOT, ", acquire p50/p99/max=%.2f/%.2f/%.2f ms",
+                                acquireP50Ms, acquireP99Ms, acquireMaxMs) + "]";
+            }
+        }
+
+        private static final class PooledConnection {
+            final Connection physical;
+            volatile long lastUsed = System.currentTimeMillis();
+            volatile long borrowedAt;
+            volatile Throwable borrowSite;
+            volatile boolean leakReported;
+            volatile boolean broken;
+            volatile Thread borrower;
+            volatile String sql; // Last statement prepared through the current borrow, for stall reports
+            volatile long sqlSince;
+
+            PooledConnection(Connection physical) {
+                this.physical = physical;
+            }
+        }
+
+        // One handle per borrow, so a stale reference cannot touch the next borrower's session
+        private final class Handle implements InvocationHandler {
+            private final PooledConnection owner;
+            private volatile boolean closed;
+
+            Handle(PooledConnection owner) {
+                this.owner = owner;
+            }
+
+            @Override
+            public Object invoke(Object proxy, java.lang.reflect.Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        synchronized (this) {
+                            if (closed) {
+                                return null;
+                            }
+                            closed = true;
+                        }
+                        release(owner);
+                        return null;
+                    case "isClosed":
+                        return closed || owner.physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "PooledConnection[" + owner.physical + "]";
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("Connection has already been returned to the pool");
+                }
+                if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                    owner.sql = sql;
+                    owner.sqlSince = System.currentTimeMillis();
+                } else if (method.getName().equals("createStatement")) {
+                    owner.sql = "(plain Statement)";
+                    owner.sqlSince = System.currentTimeMillis();
+                }
+                try {
+                    return method.invoke(owner.physical, args);
+                } catch (InvocationTargetException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof SQLException sqlEx && sqlEx.getSQLState() != null
+                            && sqlEx.getSQLState().startsWith("08")) {
+                        owner.broken = true; // connection-level failure, don't hand it out again
+                    }
+                    throw cause;
+                }
+            }
+        }
+    }
+
+    // --- EDT stall watchdog: times every event dispatch and reports the ones that block the UI ---
+    static class EdtWatchdog {
+        record Offender(String callSite, long stalls, long totalMs, long maxMs) {
+            @Override
+            public String toString() {
+                return callSite + ": " + stalls + " stalls, " + totalMs + " ms total, " + maxMs + " ms max";
+            }
+        }
+
+        record Stats(long stalls, long totalStallMs, long maxStallMs, String[] worstOffenders) {
+        }
+
+        private record Stall(long since, String callSite, String report) {
+        }
+
+        private static final Logger LOG = Logger.getLogger("lof.edt");
+        private static final Metrics.OperationTimer DISPATCH = Metrics.timer("Ui", "edt.dispatch");
+        private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(EDT_STALL_MS);
+        private static final int MAX_STACK_FRAMES = 80;
+        private static final String[] LIBRARY_PREFIXES = {"java.", "javax.", "jdk.", "sun.", "com.sun.", "com.mysql."};
+
+        // Call site -> {stalls, total ms, max ms}; guarded by itself
+        private static final Map<String, long[]> OFFENDERS = new HashMap<>();
+        private static final AtomicReference<Stall> PENDING = new AtomicReference<>();
+        private static final ScheduledExecutorService CHECKER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lof-edt-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+
+        private static volatile Thread edt;
+        private static volatile long busySince; // nanoTime the running dispatch started (or resumed), 0 when idle
+        private static volatile AWTEvent current;
+        private static boolean installed;
+
+        static synchronized void install() {
+            if (installed) {
+                return;
+            }
+            installed = true;
+            try {
+                FileHandler file = new FileHandler(EDT_LOG_PATTERN, EDT_LOG_BYTES, EDT_LOG_FILES, true);
+                file.setFormatter(new SimpleFormatter());
+                LOG.addHandler(file);
+                LOG.setUseParentHandlers(false);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("EDT stall log unavailable, reporting to the console: " + e.getMessage());
+            }
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(new MonitoredQueue());
+            long period = Math.max(10, EDT_STALL_MS / 4);
+            CHECKER.scheduleAtFixedRate(EdtWatchdog::check, period, period, TimeUnit.MILLISECONDS);
+            Metrics.register("EdtWatchdog", "edt", EdtWatchdog::stats, null);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                List<Offender> worst = worstOffenders(10);
+                if (!worst.isEmpty()) {
+                    System.err.println("EDT stalls over " + EDT_STALL_MS + " ms, worst call sites:");
+                    worst.forEach(offender -> System.err.println("  " + offender));
+                }
+            }, "lof-edt-summary"));
+        }
+
+        // Ordered by total stall time
+        static List<Offender> worstOffenders(int limit) {
+            List<Offender> offenders = new ArrayList<>();
+            synchronized (OFFENDERS) {
+                OFFENDERS.forEach((site, totals) -> offenders.add(new Offender(site, totals[0], totals[1], totals[2])));
+            }
+            offenders.sort((a, b) -> Long.compare(b.totalMs(), a.totalMs()));
+            return offenders.size() > limit ? offenders.subList(0, limit) : offenders;
+        }
+
+        static Stats stats() {
+            long stalls = 0, total = 0, max = 0;
+            synchronized (OFFENDERS) {
+                for (long[] totals : OFFENDERS.values()) {
+                    stalls += totals[0];
+                    total += totals[1];
+                    max = Math.max(max, totals[2]);
+                }
+            }
+            return new Stats(stalls, total, max, worstOffenders(10).stream().map(Offender::toString).toArray(String[]::new));
+        }
+
+        private static final class MonitoredQueue extends EventQueue {
+            private int dispatches; // EDT only; changes during a dispatch that pumps nested events (modal dialogs)
+
+            @Override
+            protected void dispatchEvent(AWTEvent event) {
+                long started = System.nanoTime();
+                int serial = ++dispatches;
+                AWTEvent outer = current;
+                edt = Thread.currentThread(); // The EDT is replaced after an uncaught exception
+                current = event;
+                busySince = started;
+                try {
+                    super.dispatchEvent(event);
+                } finally {
+                    long ended = System.nanoTime();
+                    current = outer;
+                    busySince = outer != null ? ended : 0; // An outer dispatch is pumping events again
+                    if (serial == dispatches) {
+                        DISPATCH.success(started, 0);
+                    }
+                    Stall stall = PENDING.get();
+                    if (stall != null && stall.since() >= started && PENDING.compareAndSet(stall, null)) {
+                        CHECKER.execute(() -> finish(stall, ended - stall.since()));
+                    }
+                }
+            }
+        }
+
+        // Runs on the watchdog thread
+        private static void check() {
+            try {
+                long since = busySince;
+                Thread thread = edt;
+                if (since == 0 || thread == null || System.nanoTime() - since < THRESHOLD_NANOS) {
+                    return;
+                }
+                Stall previous = PENDING.get();
+                if (previous != null && previous.since() == since) {
+                    return; // Already captured
+                }
+                StackTraceElement[] stack = thread.getStackTrace();
+                if (busySince != since || waitingForEvents(stack)) {
+                    return;
+                }
+                Stall stall = new Stall(since, callSite(stack), report(thread, stack));
+                PENDING.set(stall);
+                if (busySince != since && PENDING.compareAndSet(stall, null)) {
+                    finish(stall, System.nanoTime() - since); // The dispatch ended while the stack was taken
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace(); // Keep the schedule alive
+            }
+        }
+
+        private static void finish(Stall stall, long nanos) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+            synchronized (OFFENDERS) {
+                long[] totals = OFFENDERS.computeIfAbsent(stall.callSite(), site -> new long[3]);
+                totals[0]++;
+                totals[1] += ms;
+                totals[2] = Math.max(totals[2], ms);
+            }
+            LOG.log(Level.WARNING, "EDT blocked for " + ms + " ms at " + stall.callSite() + "\n" + stall.report());
+        }
+
+        private static String report(Thread thread, StackTraceElement[] stack) {
+            StringBuilder report = new StringBuilder();
+            AWTEvent event = current;
+            if (event != null) {
+                String description = event.toString();
+                report.append("Event: ").append(description, 0, Math.min(description.length(), 300)).append('\n');
+            }
+            for (ConnectionPool.InFlight sql : DBManager.inFlightSql()) {
+                report.append(sql.thread() == thread ? "SQL on the EDT (" : "SQL on " + sql.thread().getName() + " (")
+                        .append(sql.ageMs()).append(" ms): ").append(sql.sql().strip().replaceAll("\\s+", " ")).append('\n');
+            }
+            report.append("EDT stack (").append(thread.getName()).append("):\n");
+            for (int i = 0; i < stack.length && i < MAX_STACK_FRAMES; i++) {
+                report.append("\tat ").append(stack[i]).append('\n');
+            }
+            if (stack.length > MAX_STACK_FRAMES) {
+                report.append("\t... ").append(stack.length - MAX_STACK_FRAMES).append(" more\n");
+            }
+            return report.toString();
+        }
+
+        // The topmost frame outside the JDK and the JDBC driver, i.e. the application code that blocked
+        private static String callSite(StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                if (!isLibrary(frame.getClassName())) {
+                    return frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber();
+                }
+            }
+            return stack.length > 0 ? stack[0].toString() : "unknown";
+        }
+
+        private static boolean isLibrary(String className) {
+            for (String prefix : LIBRARY_PREFIXES) {
+                if (className.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return className.startsWith("LostAndFoundSystem$EdtWatchdog");
+        }
+
+        // An outer dispatch showing a modal dialog is idle while its secondary loop waits for the next event
+        private static boolean waitingForEvents(StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                if (frame.getMethodName().equals("getNextEvent") && frame.getClassName().equals("java.awt.EventQueue")) {
+                    return true;
+                }
+                if (frame.getMethodName().equals("dispatchEvent")) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+
+    // --- Runs JDBC work off the Event Dispatch Thread on virtual threads ---
+    static class DataAccess {
+        private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("lof-db-", 0).factory());
+
+        @FunctionalInterface
+        interface SqlTask<T> {
+            T call() throws SQLException;
+        }
+
+        static <T> CompletableFuture<T> submit(SqlTask<T> task) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, EXECUTOR);
+        }
+
+        // File jobs (import/export) touch both the disk and the database
+        @FunctionalInterface
+        interface FileTask<T> {
+            T call() throws IOException, SQLException;
+        }
+
+        static <T> CompletableFuture<T> submitFile(FileTask<T> task) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (IOException | SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }, EXECUTOR);
+        }
+
+        // Delivers the outcome of a background call on the EDT
+        static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+                              Consumer<Throwable> onFailure) {
+            future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    onFailure.accept(unwrap(error));
+                } else {
+                    onSuccess.accept(result);
+                }
+            }));
+        }
+
+        static Throwable unwrap(Throwable error) {
+            while ((error instanceof CompletionException || error instanceof ExecutionException)
+                    && error.getCause() != null) {
+                error = error.getCause();
+            }
+            return error;
+        }
+    }
+
+    // --- In-memory inverted index with BM25 ranking over item text fields ---
+    static class SearchIndex {
+        private static final float K1 = 1.2f;
+        private static final float B = 0.75f;
+        private static final int NAME_WEIGHT = 3;
+        private static final int LOCATION_WEIGHT = 2;
+        private static final int TEXT_WEIGHT = 1; // description and reporter
+        private static final int MAX_PREFIX_EXPANSIONS = 64;
+        // Removed documents stay as tombstones until there are at least this many and they are a quarter
+        // of the index; then the index is compacted (also used by TrigramIndex and GeoGrid)
+        static final int COMPACT_MIN_REMOVED = 1024;
+
+        // Postings hold internal document numbers in ascending order with their weighted term frequency
+        static final class Postings {
+            int[] docs = new int[2];
+            int[] freqs = new int[2];
+            int size;
+
+            void add(int doc, int freq) {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                    freqs = Arrays.copyOf(freqs, size * 2);
+                }
+                docs[size] = doc;
+                freqs[size] = freq;
+                size++;
+            }
+
+            // Gallops forward from 'from'; returns the match index, or -(insertion point) - 1
+            int indexOf(int doc, int from) {
+                int bound = 1;
+                while (from + bound < size && docs[from + bound] < doc) {
+                    bound <<= 1;
+                }
+                return Arrays.binarySearch(docs, from + (bound >> 1), Math.min(from + bound + 1, size), doc);
+            }
+        }
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final HashMap<Integer, Integer> docById = new HashMap<>();
+        private Item[] items = new Item[1024];
+        private int[] docLengths = new int[1024];
+        private int docCount;
+        private long totalLength;
+        private final BitSet removed = new BitSet(); // tombstoned documents
+        private int removedCount;
+
+        static List<String> tokenize(String text) {
+            List<String> tokens = new ArrayList<>();
+            if (text == null) {
+                return tokens;
+            }
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    tokens.add(text.substring(start, i).toLowerCase());
+                    start = -1;
+                }
+            }
+            return tokens;
+        }
+
+        // Adds an item unless it is already indexed; returns whether it was added
+        boolean add(Item item) {
+            HashMap<String, Integer> freqs = new HashMap<>();
+            int length = countTerms(freqs, item.name(), NAME_WEIGHT)
+                    + countTerms(freqs, item.location(), LOCATION_WEIGHT)
+                    + countTerms(freqs, item.description(), TEXT_WEIGHT)
+                    + countTerms(freqs, item.reporter(), TEXT_WEIGHT);
+            lock.writeLock().lock();
+            try {
+                if (docById.containsKey(item.id())) {
+                    return false;
+                }
+                int doc = docCount++;
+                if (doc == items.length) {
+                    items = Arrays.copyOf(items, doc * 2);
+                    docLengths = Arrays.copyOf(docLengths, doc * 2);
+                }
+                items[doc] = item;
+                docLengths[doc] = length;
+                totalLength += length;
+                docById.put(item.id(), doc);
+                for (Map.Entry<String, Integer> e : freqs.entrySet()) {
+                    terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, e.getValue());
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Tombstones the item's document so searches skip it; returns whether it was indexed
+        boolean remove(int id) {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docById.remove(id);
+                if (doc == null) {
+                    return false;
+                }
+                removed.set(doc);
+                removedCount++;
+                totalLength -= docLengths[doc];
+                items[doc] = null;
+                if (removedCount >= COMPACT_MIN_REMOVED && removedCount * 4L >= docCount) {
+                    compact();
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Renumbers the live documents in their current order, so postings stay sorted, and drops the
+        // removed ones from the postings. Caller holds the write lock
+        private void compact() {
+            int[] renumbered = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                if (removed.get(doc)) {
+                    renumbered[doc] = -1;
+                    continue;
+                }
+                renumbered[doc] = live;
+                items[live] = items[doc];
+                docLengths[live] = docLengths[doc];
+                live++;
+            }
+            Arrays.fill(items, live, docCount, null);
+            Iterator<Postings> postingsLists = terms.values().iterator();
+            while (postingsLists.hasNext()) {
+                Postings postings = postingsLists.next();
+                int kept = 0;
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = renumbered[postings.docs[i]];
+                    if (doc >= 0) {
+                        postings.docs[kept] = doc;
+                        postings.freqs[kept] = postings.freqs[i];
+                        kept++;
+                    }
+                }
+                postings.size = kept;
+                if (kept == 0) {
+                    postingsLists.remove();
+                }
+            }
+            docById.replaceAll((id, doc) -> renumbered[doc]);
+            docCount = live;
+            removed.clear();
+            removedCount = 0;
+        }
+
+        private static int countTerms(Map<String, Integer> freqs, String text, int weight) {
+            List<String> tokens = tokenize(text);
+            for (String token : tokens) {
+                freqs.merge(token, weight, Integer::sum);
+            }
+            return tokens.size() * weight;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return docCount - removedCount;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Returns items matching every query term (the last one as a prefix), best BM25 score first.
+        // An empty query lists the newest items.
+        List<Item> search(String query, int limit) {
+            List<String> queryTerms = tokenize(query);
+            lock.readLock().lock();
+            try {
+                if (queryTerms.isEmpty()) {
+                    List<Item> newest = new ArrayList<>(Math.min(limit, docCount));
+                    for (int doc = docCount - 1; doc >= 0 && newest.size() < limit; doc--) {
+                        if (!removed.get(doc)) {
+                            newest.add(items[doc]);
+                        }
+                    }
+                    return newest;
+                }
+
+                // Each query term expands to one or more index terms; the last one matches as a prefix
+                List<List<Postings>> groups = new ArrayList<>();
+                for (int i = 0; i < queryTerms.size(); i++) {
+                    List<Postings> group = expand(queryTerms.get(i), i == queryTerms.size() - 1);
+                    if (group.isEmpty()) {
+                        return new ArrayList<>();
+                    }
+                    groups.add(group);
+                }
+                groups.sort((a, b) -> Long.compare(documentFrequency(a), documentFrequency(b)));
+
+                float avgLength = averageLength();
+                int[] candidates = new int[(int) documentFrequency(groups.get(0))];
+                float[] scores = new float[candidates.length];
+                int count = 0;
+                for (int g = 0; g < groups.size(); g++) {
+                    List<Postings> group = groups.get(g);
+                    if (g == 0) {
+                        // Seed candidates from the rarest group
+                        for (Postings postings : group) {
+                            float idf = idf(postings.size);
+                            for (int i = 0; i < postings.size; i++) {
+                                candidates[count] = postings.docs[i];
+                                scores[count] = bm25(idf, postings.freqs[i], docLengths[postings.docs[i]], avgLength);
+                                count++;
+                            }
+                        }
+                        if (group.size() > 1) {
+                            count = mergeDuplicates(candidates, scores, count);
+                        }
+                        continue;
+                    }
+                    // Keep only candidates that also contain this group, adding its score.
+                    // Candidates are in document order, so each posting list is walked forward once.
+                    int[] cursors = new int[group.size()];
+                    float[] idfs = new float[group.size()];
+                    for (int p = 0; p < idfs.length; p++) {
+                        idfs[p] = idf(group.get(p).size);
+                    }
+                    int kept = 0;
+                    for (int c = 0; c < count; c++) {
+                        int doc = candidates[c];
+                        float add = 0f;
+                        boolean found = false;
+                        for (int p = 0; p < cursors.length; p++) {
+                            Postings postings = group.get(p);
+                            if (cursors[p] >= postings.size) {
+                                continue;
+                            }
+                            int at = postings.indexOf(doc, cursors[p]);
+                            cursors[p] = at >= 0 ? at + 1 : -at - 1;
+                            if (at >= 0) {
+                                found = true;
+                                add += bm25(idfs[p], postings.freqs[at], docLengths[doc], avgLength);
+                            }
+                        }
+                        if (found) {
+                            candidates[kept] = doc;
+                            scores[kept] = scores[c] + add;
+                            kept++;
+                        }
+                    }
+                    count = kept;
+                }
+
+                return top(candidates, scores, count, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Items sharing the probe's name and description terms, most similar first. Only the newest
+        // maxTermDocs items of each term are considered, so common terms never turn this into a scan.
+        List<Item> similar(Item probe, int limit, int maxTermDocs) {
+            Set<String> probeTerms = new HashSet<>(tokenize(probe.name()));
+            probeTerms.addAll(tokenize(probe.description()));
+            lock.readLock().lock();
+            try {
+                List<Postings> matched = new ArrayList<>();
+                int bound = 0;
+                for (String term : probeTerms) {
+                    Postings postings = terms.get(term);
+                    if (postings != null) {
+                        matched.add(postings);
+                        bound += Math.min(postings.size, maxTermDocs);
+                    }
+                }
+                // Open-addressing map from document to candidate slot (slot + 1; 0 means empty)
+                int capacity = Integer.highestOneBit(Math.max(16, bound * 2)) << 1;
+                int[] keys = new int[capacity];
+                int[] slots = new int[capacity];
+                int[] candidates = new int[bound];
+                float[] scores = new float[bound];
+                int count = 0;
+                float avgLength = averageLength();
+                for (Postings postings : matched) {
+                    float idf = idf(postings.size);
+                    for (int i = postings.size - 1; i >= Math.max(0, postings.size - maxTermDocs); i--) {
+                        int doc = postings.docs[i];
+                        int h = (doc * 0x9E3779B9) & (capacity - 1);
+                        while (slots[h] != 0 && keys[h] != doc) {
+                            h = (h + 1) & (capacity - 1);
+                        }
+                        if (slots[h] == 0) {
+                            keys[h] = doc;
+                            slots[h] = ++count;
+                            candidates[count - 1] = doc;
+                        }
+                        scores[slots[h] - 1] += bm25(idf, postings.freqs[i], docLengths[doc], avgLength);
+                    }
+                }
+                return top(candidates, scores, count, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Best-scoring live documents, using a bounded min-heap. Positive float bits order like the
+        // floats, and ties go to the newer document. Caller holds the read lock.
+        private List<Item> top(int[] candidates, float[] scores, int count, int limit) {
+            long[] top = new long[Math.min(limit, count)];
+            int topSize = 0;
+            for (int c = 0; c < count; c++) {
+                if (removedCount > 0 && removed.get(candidates[c])) {
+                    continue;
+                }
+                long key = ((long) Float.floatToIntBits(scores[c]) << 32) | candidates[c];
+                if (topSize < top.length) {
+                    top[topSize++] = key;
+                    siftUp(top, topSize - 1);
+                } else if (key > top[0]) {
+                    top[0] = key;
+                    siftDown(top, topSize);
+                }
+            }
+            Arrays.sort(top, 0, topSize);
+            List<Item> results = new ArrayList<>(topSize);
+            for (int r = topSize - 1; r >= 0; r--) {
+                results.add(items[(int) top[r]]);
+            }
+            return results;
+        }
+
+        // Min-heap helpers for top-k selection over packed score keys
+        private static void siftUp(long[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= heap[i]) {
+                    return;
+                }
+                long tmp = heap[parent];
+                heap[parent] = heap[i];
+                heap[i] = tmp;
+                i = parent;
+            }
+        }
+
+        private static void siftDown(long[] heap, int size) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[i] <= heap[child]) {
+                    return;
+                }
+                long tmp = heap[child];
+                heap[child] = heap[i];
+                heap[i] = tmp;
+                i = child;
+            }
+        }
+
+        private List<Postings> expand(String term, boolean prefix) {
+            List<Postings> group = new ArrayList<>();
+            Postings exact = terms.get(term);
+            if (exact != null) {
+                group.add(exact);
+            }
+            if (prefix) {
+                NavigableMap<String, Postings> tail = terms.tailMap(term, false);
+                for (Map.Entry<String, Postings> e : tail.entrySet()) {
+                    if (!e.getKey().startsWith(term) || group.size() >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    group.add(e.getValue());
+                }
+            }
+            return group;
+        }
+
+        private static long documentFrequency(List<Postings> group) {
+            long df = 0;
+            for (Postings postings : group) {
+                df += postings.size;
+            }
+            return df;
+        }
+
+        // Document frequencies still count tombstoned documents until the next compaction
+        private float idf(int df) {
+            return (float) Math.log(1 + (Math.max(df, docCount - removedCount) - df + 0.5) / (df + 0.5));
+        }
+
+        private float averageLength() {
+            int live = docCount - removedCount;
+            return live == 0 ? 1f : (float) totalLength / live;
+        }
+
+        private static float bm25(float idf, int freq, int docLength, float avgLength) {
+            return idf * freq * (K1 + 1) / (freq + K1 * (1 - B + B * docLength / avgLength));
+        }
+
+        // Sorts candidates by document and sums the scores of duplicates; returns the new count
+        private static int mergeDuplicates(int[] docs, float[] scores, int count) {
+            long[] packed = new long[count];
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((long) docs[i] << 32) | i;
+            }
+            Arrays.sort(packed);
+            float[] original = Arrays.copyOf(scores, count);
+            int out = -1;
+            for (int i = 0; i < count; i++) {
+                int doc = (int) (packed[i] >>> 32);
+                float score = original[(int) packed[i]];
+                if (out >= 0 && docs[out] == doc) {
+                    scores[out] += score;
+                } else {
+                    out++;
+                    docs[out] = doc;
+                    scores[out] = score;
+                }
+            }
+            return out + 1;
+        }
+    }
+
+    // --- Typo-tolerant search: trigram index over the words of item names and locations ---
+    static class TrigramIndex {
+        private static final int MAX_CORRECTIONS_PER_TERM = 8;
+
+        record Correction(String word, int distance, int frequency) {
+        }
+
+        record FuzzyResult(List<Item> items, String suggestion) {
+        }
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final HashMap<String, Integer> wordIds = new HashMap<>();
+        private final List<String> words = new ArrayList<>();
+        private final List<IntList> wordDocs = new ArrayList<>(); // word id -> documents containing it
+        private final HashMap<String, IntList> trigramWords = new HashMap<>(); // trigram -> word ids
+        private final HashMap<Integer, Integer> docById = new HashMap<>();
+        private Item[] items = new Item[1024];
+        private int docCount;
+        private final BitSet removed = new BitSet(); // tombstoned documents
+        private int removedCount;
+
+        // "$wallet$" -> $wa, wal, all, lle, let, et$ (padding gives short words at least one trigram)
+        static List<String> trigrams(String word) {
+            String padded = "$" + word + "$";
+            List<String> grams = new ArrayList<>(padded.length() - 2);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+            return grams;
+        }
+
+        // Edits tolerated for a query word of this length
+        static int maxDistance(int length) {
+            return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+        }
+
+        // Optimal string alignment distance, giving up once it must exceed max
+        static int editDistance(String a, String b, int max) {
+            if (Math.abs(a.length() - b.length()) > max) {
+                return max + 1;
+            }
+            int[] prevPrev = new int[b.length() + 1];
+            int[] prev = new int[b.length() + 1];
+            int[] cur = new int[b.length() + 1];
+            for (int j = 0; j <= b.length(); j++) {
+                prev[j] = j;
+            }
+            for (int i = 1; i <= a.length(); i++) {
+                cur[0] = i;
+                int rowMin = i;
+                for (int j = 1; j <= b.length(); j++) {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        d = Math.min(d, prevPrev[j - 2] + 1);
+                    }
+                    cur[j] = d;
+                    rowMin = Math.min(rowMin, d);
+                }
+                if (rowMin > max) {
+                    return max + 1;
+                }
+                int[] tmp = prevPrev;
+                prevPrev = prev;
+                prev = cur;
+                cur = tmp;
+            }
+            return prev[b.length()];
+        }
+
+        boolean add(Item item) {
+            Set<String> itemWords = words(item);
+            lock.writeLock().lock();
+            try {
+                if (docById.containsKey(item.id())) {
+                    return false;
+                }
+                addLocked(item, itemWords);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private static Set<String> words(Item item) {
+            Set<String> itemWords = new HashSet<>(SearchIndex.tokenize(item.name()));
+            itemWords.addAll(SearchIndex.tokenize(item.location()));
+            return itemWords;
+        }
+
+        private void addLocked(Item item, Set<String> itemWords) {
+            int doc = docCount++;
+            if (doc == items.length) {
+                items = Arrays.copyOf(items, doc * 2);
+            }
+            items[doc] = item;
+            docById.put(item.id(), doc);
+            for (String word : itemWords) {
+                Integer wordId = wordIds.get(word);
+                if (wordId == null) {
+                    wordId = words.size();
+                    wordIds.put(word, wordId);
+                    words.add(word);
+                    wordDocs.add(new IntList());
+                    for (String gram : new HashSet<>(trigrams(word))) {
+                        trigramWords.computeIfAbsent(gram, g -> new IntList()).add(wordId);
+                    }
+                }
+                wordDocs.get(wordId).add(doc);
+            }
+        }
+
+        // Tombstones the item's document so searches skip it; returns whether it was indexed
+        boolean remove(int id) {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docById.remove(id);
+                if (doc == null) {
+                    return false;
+                }
+                removed.set(doc);
+                removedCount++;
+                if (removedCount >= SearchIndex.COMPACT_MIN_REMOVED && removedCount * 4L >= docCount) {
+                    compact();
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Re-adds the live items in their current order, which also drops words only removed items had.
+        // Caller holds the write lock
+        private void compact() {
+            List<Item> live = new ArrayList<>(docCount - removedCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!removed.get(doc)) {
+                    live.add(items[doc]);
+                }
+            }
+            wordIds.clear();
+            words.clear();
+            wordDocs.clear();
+            trigramWords.clear();
+            docById.clear();
+            items = new Item[Math.max(1024, live.size())];
+            docCount = 0;
+            removed.clear();
+            removedCount = 0;
+            for (Item item : live) {
+                addLocked(item, words(item));
+            }
+        }
+
+        // Indexed words within edit distance of the term, closest and most common first
+        List<Correction> corrections(String term) {
+            lock.readLock().lock();
+            try {
+                return correctionsLocked(term);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private List<Correction> correctionsLocked(String term) {
+            int max = maxDistance(term.length());
+            List<Correction> found = new ArrayList<>();
+            Integer exact = wordIds.get(term);
+            if (exact != null) {
+                found.add(new Correction(term, 0, wordDocs.get(exact).size()));
+            }
+            if (max > 0) {
+                // An insertion, deletion or substitution destroys at most three trigrams and a transposition
+                // (one edit under the OSA distance) four, so real matches keep at least this many
+                List<String> grams = trigrams(term);
+                int minShared = Math.max(1, grams.size() - 4 * max);
+                int[] shared = new int[words.size()];
+                IntList touched = new IntList(64);
+                for (String gram : new HashSet<>(grams)) {
+                    IntList wordList = trigramWords.get(gram);
+                    if (wordList != null) {
+                        for (int i = 0; i < wordList.size(); i++) {
+                            int wordId = wordList.get(i);
+                            if (shared[wordId]++ == 0) {
+                                touched.add(wordId);
+                            }
+                        }
+                    }
+                }
+                for (int t = 0; t < touched.size(); t++) {
+                    int wordId = touched.get(t);
+                    if (shared[wordId] < minShared || (exact != null && wordId == exact)) {
+                        continue;
+                    }
+                    String word = words.get(wordId);
+                    int distance = editDistance(term, word, max);
+                    if (distance <= max) {
+                        found.add(new Correction(word, distance, wordDocs.get(wordId).size()));
+                    }
+                }
+            }
+            found.sort((a, b) -> a.distance() != b.distance() ? Integer.compare(a.distance(), b.distance())
+                    : Integer.compare(b.frequency(), a.frequency()));
+            return found.size() > MAX_CORRECTIONS_PER_TERM ? new ArrayList<>(found.subList(0, MAX_CORRECTIONS_PER_TERM)) : found;
+        }
+
+        // Items whose name or location contains a close match for every query word,
+        // ranked by total edit distance and then recency
+        FuzzyResult search(String query, int limit) {
+            List<String> terms = SearchIndex.tokenize(query);
+            lock.readLock().lock();
+            try {
+                if (terms.isEmpty()) {
+                    return new FuzzyResult(new ArrayList<>(), null);
+                }
+                // Sorted documents with the summed distance of their closest words so far
+                int[] docs = null;
+                int[] distances = null;
+                int count = 0;
+                int maxTotal = 0;
+                StringBuilder suggestion = new StringBuilder();
+                boolean corrected = false;
+                for (String term : terms) {
+                    List<Correction> corrections = correctionsLocked(term);
+                    if (corrections.isEmpty()) {
+                        return new FuzzyResult(new ArrayList<>(), null);
+                    }
+                    Correction best = corrections.get(0);
+                    corrected |= best.distance() > 0;
+                    suggestion.append(suggestion.length() == 0 ? "" : " ").append(best.word());
+
+                    // Union of the documents of every correction, keeping the smallest distance
+                    int[] termDocs = new int[0];
+                    int[] termDistances = new int[0];
+                    int termCount = 0;
+                    for (Correction correction : corrections) {
+                        IntList list = wordDocs.get(wordIds.get(correction.word()));
+                        int[] merged = new int[termCount + list.size()];
+                        int[] mergedDistances = new int[merged.length];
+                        int i = 0, j = 0, out = 0;
+                        while (i < termCount || j < list.size()) {
+                            if (j == list.size() || (i < termCount && termDocs[i] < list.get(j))) {
+                                merged[out] = termDocs[i];
+                                mergedDistances[out++] = termDistances[i++];
+                            } else if (i == termCount || list.get(j) < termDocs[i]) {
+                                merged[out] = list.get(j++);
+                                mergedDistances[out++] = correction.distance();
+                            } else {
+                                merged[out] = termDocs[i];
+                                mergedDistances[out++] = Math.min(termDistances[i++], correction.distance());
+                                j++;
+                            }
+                        }
+                        termDocs = merged;
+                        termDistances = mergedDistances;
+                        termCount = out;
+                    }
+                    maxTotal += corrections.get(corrections.size() - 1).distance();
+
+                    if (docs == null) {
+                        docs = termDocs;
+                        distances = termDistances;
+                        count = termCount;
+                    } else {
+                        // Intersect with the documents matching the previous terms
+                        int i = 0, j = 0, out = 0;
+                        while (i < count && j < termCount) {
+                            if (docs[i] < termDocs[j]) {
+                                i++;
+                            } else if (termDocs[j] < docs[i]) {
+                                j++;
+                            } else {
+                                docs[out] = docs[i];
+                                distances[out++] = distances[i++] + termDistances[j++];
+                            }
+                        }
+                        count = out;
+                    }
+                    if (count == 0) {
+                        break;
+                    }
+                }
+
+                // Distances are small, so rank by bucket: closest first, newest first within a bucket
+                List<Item> results = new ArrayList<>(Math.min(limit, count));
+                for (int distance = 0; distance <= maxTotal && results.size() < limit; distance++) {
+                    for (int i = count - 1; i >= 0 && results.size() < limit; i--) {
+                        if (distances[i] == distance && !removed.get(docs[i])) {
+                            results.add(items[docs[i]]);
+                        }
+                    }
+                }
+                return new FuzzyResult(results, corrected ? suggestion.toString() : null);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    // --- Gazetteer of named places, read once per process ---
+    static class Places {
+        private static CompletableFuture<List<Place>> loaded;
+
+        static synchronized CompletableFuture<List<Place>> all() {
+            if (loaded == null || loaded.isCompletedExceptionally()) {
+                loaded = DBManager.schemaReady().thenCompose(version -> DataAccess.submit(PlaceRepository.SHARED::all));
+            }
+            return loaded;
+        }
+
+        // Blocks until the places are loaded; call it off the EDT. Null when no place has this name
+        static Place named(String name) throws SQLException {
+            try {
+                for (Place place : all().join()) {
+                    if (place.name().equalsIgnoreCase(name.trim())) {
+                        return place;
+                    }
+                }
+                return null;
+            } catch (CompletionException e) {
+                Throwable cause = DataAccess.unwrap(e);
+                throw cause instanceof SQLException sqlEx ? sqlEx
+                        : new SQLException("Failed to load places: " + cause.getMessage(), cause);
+            }
+        }
+
+        // "None" first, then the places once loaded; the box is disabled while there are none
+        static JComboBox<Object> chooser(String none) {
+            JComboBox<Object> box = new JComboBox<>(new Object[] {none});
+            box.setEnabled(false);
+            DataAccess.onEdt(all(), places -> {
+                for (Place place : places) {
+                    box.addItem(place);
+                }
+                box.setEnabled(!places.isEmpty());
+            }, Throwable::printStackTrace);
+            return box;
+        }
+    }
+
+    // Radius or bounding-box area for item searches, optionally only items dated on or after since.
+    // A radius keeps its bounding box for the grid lookup; results come nearest first, otherwise newest first.
+    // Boxes crossing the antimeridian are not supported.
+    record GeoFilter(String label, double south, double west, double north, double east,
+                     double latitude, double longitude, double radiusMeters, LocalDate since) {
+
+        static GeoFilter near(String label, double latitude, double longitude, double radiusMeters, LocalDate since) {
+            double latSpan = radiusMeters / GeoGrid.METERS_PER_DEGREE;
+            double lonSpan = radiusMeters / (GeoGrid.METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+            return new GeoFilter(label, latitude - latSpan, longitude - lonSpan, latitude + latSpan, longitude + lonSpan,
+                    latitude, longitude, radiusMeters, since);
+        }
+
+        static GeoFilter box(String label, double south, double west, double north, double east, LocalDate since) {
+            return new GeoFilter(label, south, west, north, east, Double.NaN, Double.NaN, Double.NaN, since);
+        }
+
+        boolean contains(Item item) {
+            if (!item.hasCoordinates()
+                    || item.latitude() < south || item.latitude() > north
+                    || item.longitude() < west || item.longitude() > east) {
+                return false;
+            }
+            if (since != null && (item.date() == null || item.date().toLocalDate().isBefore(since))) {
+                return false;
+            }
+            return Double.isNaN(radiusMeters) || distanceMeters(item) <= radiusMeters;
+        }
+
+        double distanceMeters(Item item) {
+            return GeoGrid.distanceMeters(latitude, longitude, item.latitude(), item.longitude());
+        }
+
+        Comparator<Item> order() {
+            Comparator<Item> newest = Comparator.comparingInt(Item::id).reversed();
+            return Double.isNaN(radiusMeters) ? newest
+                    : Comparator.comparingDouble(this::distanceMeters).thenComparing(newest);
+        }
+    }
+
+    // Items with coordinates bucketed into a uniform grid of roughly square cells (in degrees of latitude),
+    // so an area search only looks at the cells its bounding box covers
+    static class GeoGrid {
+        static final double METERS_PER_DEGREE = 111_320.0; // of latitude, and of longitude at the equator
+        private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final HashMap<Long, List<Item>> cells = new HashMap<>();
+        private final HashMap<Integer, Long> cellById = new HashMap<>();
+        private final HashSet<Integer> removed = new HashSet<>(); // ids still in their cell lists
+        private final double cellDegrees;
+        private int size;
+
+        GeoGrid(int cellMeters) {
+            cellDegrees = cellMeters / METERS_PER_DEGREE;
+        }
+
+        // Great-circle distance by the haversine formula
+        static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+            double dLat = Math.toRadians(lat2 - lat1);
+            double dLon = Math.toRadians(lon2 - lon1);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+            return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+
+        void add(Item item) {
+            if (!item.hasCoordinates()) {
+                return;
+            }
+            long key = key(cell(item.latitude()), cell(item.longitude()));
+            lock.writeLock().lock();
+            try {
+                if (cellById.putIfAbsent(item.id(), key) != null) {
+                    return; // Already indexed
+                }
+                cells.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+                size++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Tombstones the item so searches skip it; the cell lists are compacted like SearchIndex's postings
+        void remove(int id) {
+            lock.writeLock().lock();
+            try {
+                if (cellById.remove(id) == null) {
+                    return;
+                }
+                removed.add(id);
+                size--;
+                if (removed.size() >= SearchIndex.COMPACT_MIN_REMOVED && removed.size() >= size / 3) {
+                    Iterator<List<Item>> all = cells.values().iterator();
+                    while (all.hasNext()) {
+                        List<Item> cell = all.next();
+                        cell.removeIf(item -> removed.contains(item.id()));
+                        if (cell.isEmpty()) {
+                            all.remove();
+                        }
+                    }
+                    removed.clear();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Up to limit items inside the area that also pass accept, in the area's order
+        List<Item> search(GeoFilter area, Predicate<Item> accept, int limit) {
+            int south = cell(area.south());
+            int north = cell(area.north());
+            int west = cell(area.west());
+            int east = cell(area.east());
+            List<Item> found = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                if ((long) (north - south + 1) * (east - west + 1) > cells.size()) {
+                    // A box covering more cells than are occupied: visiting the occupied ones is cheaper
+                    for (List<Item> cell : cells.values()) {
+                        collect(cell, area, accept, found);
+                    }
+                } else {
+                    for (int row = south; row <= north; row++) {
+                        for (int column = west; column <= east; column++) {
+                            List<Item> cell = cells.get(key(row, column));
+                            if (cell != null) {
+                                collect(cell, area, accept, found);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            found.sort(area.order());
+            return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+        }
+
+        private void collect(List<Item> cell, GeoFilter area, Predicate<Item> accept, List<Item> found) {
+            for (Item item : cell) {
+                if (area.contains(item) && accept.test(item) && (removed.isEmpty() || !removed.contains(item.id()))) {
+                    found.add(item);
+                }
+            }
+        }
+
+        private int cell(double degrees) {
+            return (int) Math.floor(degrees / cellDegrees);
+        }
+
+        private static long key(int row, int column) {
+            return ((long) row << 32) | (column & 0xffffffffL);
+        }
+    }
+
+    // --- In-memory search indexes per item table, built in the background and kept current on insert ---
+    static class SearchIndexes {
+        // Everything built from one pass over a table
+        static final class TableIndexes {
+            final SearchIndex text = new SearchIndex();
+            final TrigramIndex fuzzy = new TrigramIndex();
+            final GeoGrid geo = new GeoGrid(GEO_CELL_METERS);
+
+            void add(Item item) {
+                text.add(item);
+                fuzzy.add(item);
+                geo.add(item);
+            }
+
+            void remove(int id) {
+                text.remove(id);
+                fuzzy.remove(id);
+                geo.remove(id);
+            }
+        }
+
+        private static final Map<ItemTable, CompletableFuture<TableIndexes>> BUILDS = new EnumMap<>(ItemTable.class);
+        // Inserts and removals that arrive while a table's first load is running, applied when it finishes
+        private static final Map<ItemTable, List<Item>> PENDING = new EnumMap<>(ItemTable.class);
+        private static final Map<ItemTable, List<Integer>> PENDING_REMOVED = new EnumMap<>(ItemTable.class);
+
+        static {
+            ItemEvents.addListener(SearchIndexes::onInserted);
+            ItemEvents.addRemovalListener(SearchIndexes::onRemoved);
+        }
+
+        // Starts building the indexes so the first ranked or area search does not wait
+        static void warmUp() {
+            for (ItemTable table : ItemTable.values()) {
+                build(table);
+            }
+        }
+
+        // These block until the table's indexes are built; call them off the EDT
+        static SearchIndex text(ItemTable table) throws SQLException {
+            return get(table).text;
+        }
+
+        static TrigramIndex fuzzy(ItemTable table) throws SQLException {
+            return get(table).fuzzy;
+        }
+
+        static GeoGrid geo(ItemTable table) throws SQLException {
+            return get(table).geo;
+        }
+
+        private static TableIndexes get(ItemTable table) throws SQLException {
+            try {
+                return build(table).join();
+            } catch (CompletionException e) {
+                Throwable cause = DataAccess.unwrap(e);
+                synchronized (SearchIndexes.class) {
+                    BUILDS.remove(table); // Let the next search retry
+                }
+                throw cause instanceof SQLException sqlEx ? sqlEx
+                        : new SQLException("Failed to build search index: " + cause.getMessage(), cause);
+            }
+        }
+
+        private static synchronized CompletableFuture<TableIndexes> build(ItemTable table) {
+            CompletableFuture<TableIndexes> build = BUILDS.get(table);
+            if (build == null) {
+                PENDING.put(table, new ArrayList<>());
+                PENDING_REMOVED.put(table, new ArrayList<>());
+                build = DataAccess.submit(() -> load(table));
+                BUILDS.put(table, build);
+            }
+            return build;
+        }
+
+        private static TableIndexes load(ItemTable table) throws SQLException {
+            // Rows committed after the feed's marks are delivered again; the indexes skip ids they hold
+            ChangeFeed.start().join();
+            TableIndexes index = read(table);
+            // Items reported or archived while the index was loading
+            synchronized (SearchIndexes.class) {
+                for (Item item : PENDING.remove(table)) {
+                    index.add(item);
+                }
+                for (int id : PENDING_REMOVED.remove(table)) {
+                    index.remove(id);
+                }
+            }
+            return index;
+        }
+
+        private static TableIndexes read(ItemTable table) throws SQLException {
+            TableIndexes index = new TableIndexes();
+            Metrics.OperationTimer timer = Metrics.timer("DbOperation", table.name().toLowerCase(Locale.ROOT) + ".indexLoad");
+            long started = System.nanoTime();
+            long rows = 0;
+            try (Connection conn = DBManager.getConnection();
+                 Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE); // Stream rows instead of buffering the table
+                ResultSet rs = stmt.executeQuery(table.selectSql() + " ORDER BY i.id");
+                while (rs.next()) {
+                    index.add(Item.from(rs));
+                    rows++;
+                }
+                timer.success(started, rows);
+            } catch (SQLException | RuntimeException e) {
+                timer.failure(started, e);
+                throw e;
+            }
+            return index;
+        }
+
+        // Removed items are tombstoned in place, so no table is read again
+        private static void onRemoved(ItemTable table, List<Integer> ids) {
+            CompletableFuture<TableIndexes> build;
+            synchronized (SearchIndexes.class) {
+                build = BUILDS.get(table);
+                if (build == null) {
+                    return; // Not built yet; the load will not see the rows
+                }
+                List<Integer> pending = PENDING_REMOVED.get(table);
+                if (pending != null) {
+                    pending.addAll(ids); // The running load may still read the rows
+                    return;
+                }
+            }
+            build.thenAccept(index -> {
+                for (int id : ids) {
+                    index.remove(id);
+                }
+            });
+        }
+
+        private static void onInserted(ItemTable table, Item item) {
+            CompletableFuture<TableIndexes> build;
+            synchronized (SearchIndexes.class) {
+                build = BUILDS.get(table);
+                if (build == null) {
+                    return; // Not built yet; the load will pick the item up
+                }
+                List<Item> pending = PENDING.get(table);
+                if (pending != null) {
+                    pending.add(item); // First load; it adds pending items when done
+                    return;
+                }
+            }
+            build.thenAccept(index -> index.add(item));
+        }
+    }
+
+    // --- Shared dictionary for values that repeat heavily across rows (locations, usernames) ---
+    static final class StringPool {
+        static final StringPool SHARED = new StringPool();
+
+        private final HashMap<String, Integer> codes = new HashMap<>();
+        private volatile String[] values = new String[256]; // volatile so lock-free readers see grown arrays
+        private int size;
+
+        synchronized int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = size;
+                String[] current = values;
+                if (size == current.length) {
+                    current = Arrays.copyOf(current, size * 2);
+                }
+                current[size++] = value;
+                values = current;
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+
+    // --- Column-oriented item rows: primitive ids and dates, dictionary-encoded location and reporter ---
+    static final class ItemColumns {
+        private static final int NO_DATE = Integer.MIN_VALUE;
+        // java.sql.Date per epoch day (1970 to 2149), created once and shared by every model
+        private static final AtomicReferenceArray<java.sql.Date> DATES = new AtomicReferenceArray<>(1 << 16);
+
+        private int[] ids;
+        private int[] epochDays;
+        private int[] locationCodes;
+        private int[] reporterCodes;
+        private String[] names;
+        private String[] descriptions;
+        private int size;
+
+        ItemColumns(int capacity) {
+            capacity = Math.max(1, capacity);
+            ids = new int[capacity];
+            epochDays = new int[capacity];
+            locationCodes = new int[capacity];
+            reporterCodes = new int[capacity];
+            names = new String[capacity];
+            descriptions = new String[capacity];
+        }
+
+        static ItemColumns of(List<Item> items) {
+            ItemColumns columns = new ItemColumns(items.size());
+            for (Item item : items) {
+                columns.add(item);
+            }
+            return columns;
+        }
+
+        void add(Item item) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                locationCodes = Arrays.copyOf(locationCodes, capacity);
+                reporterCodes = Arrays.copyOf(reporterCodes, capacity);
+                names = Arrays.copyOf(names, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+            ids[size] = item.id();
+            epochDays[size] = item.date() == null ? NO_DATE : (int) item.date().toLocalDate().toEpochDay();
+            locationCodes[size] = StringPool.SHARED.encode(item.location());
+            reporterCodes[size] = StringPool.SHARED.encode(item.reporter());
+            names[size] = item.name();
+            descriptions[size] = item.description();
+            size++;
+        }
+
+        // Keeps only the first n rows
+        void truncate(int n) {
+            size = Math.min(size, n);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int id(int row) {
+            return ids[row];
+        }
+
+        // Cell value in item view column order. Only the id is boxed; strings and dates are shared.
+        Object value(int row, int column) {
+            return switch (column) {
+                case 0 -> ids[row];
+                case 1 -> names[row];
+                case 2 -> descriptions[row];
+                case 3 -> StringPool.SHARED.decode(locationCodes[row]);
+                case 4 -> date(epochDays[row]);
+                case 5 -> StringPool.SHARED.decode(reporterCodes[row]);
+                default -> throw new IndexOutOfBoundsException("column " + column);
+            };
+        }
+
+        private static java.sql.Date date(int epochDay) {
+            if (epochDay == NO_DATE) {
+                return null;
+            }
+            if (epochDay < 0 || epochDay >= DATES.length()) {
+                return java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDay));
+            }
+            java.sql.Date date = DATES.get(epochDay);
+            if (date == null) {
+                date = java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDay));
+                if (!DATES.compareAndSet(epochDay, null, date)) {
+                    date = DATES.get(epochDay);
+                }
+            }
+            return date;
+        }
+    }
+
+    // --- Read-only item table model over columnar storage ---
+    static class ItemTableModel extends AbstractTableModel {
+        private final String[] columns;
+        private ItemColumns rows = new ItemColumns(0);
+
+        ItemTableModel(String[] columns) {
+            this.columns = columns;
+        }
+
+        void setItems(List<Item> items) {
+            rows = ItemColumns.of(items);
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return rows.value(row, column);
+        }
+    }
+
+    // --- Lazily loading table model: fetches keyset pages on demand as the table scrolls ---
+    // Must be used on the EDT; pages are loaded on the data-access executor.
+    static class ItemPageModel extends AbstractTableModel {
+        @FunctionalInterface
+        interface PageLoader {
+            // Up to limit items with id <= maxId, newest first
+            List<Item> load(int maxId, int limit, SearchPipeline.Cancellation cancellation) throws SQLException;
+        }
+
+        private static final class Page {
+            final int maxId; // keyset bound the page is (re)loaded with
+            final int size;
+            final int lastId;
+            ItemColumns items; // null while evicted
+            boolean loading;
+
+            Page(int maxId, ItemColumns items) {
+                this.maxId = maxId;
+                this.items = items;
+                this.size = items.size();
+                this.lastId = items.size() == 0 ? maxId : items.id(items.size() - 1);
+            }
+        }
+
+        private final String[] columns;
+        private final int pageSize;
+        private final List<Page> pages = new ArrayList<>();
+        private final List<SearchPipeline.Cancellation> inFlight = new ArrayList<>();
+        private PageLoader loader;
+        private int rowCount; // Rows in pages; rows prepended since the reset come first
+        private ItemColumns head = ItemColumns.of(List.of()); // Oldest first, shown newest first
+        private int newestId;
+        private boolean exhausted = true;
+        private boolean loadingNext;
+        private int generation;
+        private int lastAccessedPage;
+
+        ItemPageModel(String[] columns, int pageSize) {
+            this.columns = columns;
+            this.pageSize = pageSize;
+        }
+
+        int pageSize() {
+            return pageSize;
+        }
+
+        // Starts over with a new query whose first page has already been loaded
+        void reset(PageLoader loader, List<Item> firstPage) {
+            generation++;
+            for (SearchPipeline.Cancellation cancellation : inFlight) {
+                cancellation.cancel();
+            }
+            inFlight.clear();
+            pages.clear();
+            this.loader = loader;
+            rowCount = 0;
+            head = ItemColumns.of(List.of());
+            newestId = firstPage.isEmpty() ? 0 : firstPage.get(0).id();
+            exhausted = false;
+            loadingNext = false;
+            lastAccessedPage = 0;
+            appendPage(Integer.MAX_VALUE, ItemColumns.of(firstPage));
+            fireTableDataChanged();
+        }
+
+        // Whether every matching row has been fetched at least once
+        boolean isComplete() {
+            return exhausted;
+        }
+
+        // Shows newer rows above the first page without reloading. Returns false, adding nothing, when a row
+        // is not newer than the newest shown: it belongs among the loaded pages, so the caller reruns the query.
+        boolean prepend(List<Item> items) {
+            for (Item item : items) {
+                if (item.id() <= newestId) {
+                    return false;
+                }
+            }
+            for (Item item : items) {
+                head.add(item);
+                newestId = item.id();
+            }
+            if (!items.isEmpty()) {
+                fireTableRowsInserted(0, items.size() - 1);
+            }
+            return true;
+        }
+
+        @Override
+        public int getRowCount() {
+            return head.size() + rowCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (row < head.size()) {
+                return head.value(head.size() - 1 - row, column);
+            }
+            row -= head.size();
+            int pageIndex = row / pageSize;
+            lastAccessedPage = pageIndex;
+            if (row >= rowCount - VIEW_PREFETCH_ROWS) {
+                loadNextPage();
+            }
+            Page page = pages.get(pageIndex);
+            if (page.items == null) {
+                reload(pageIndex);
+                return null; // Placeholder until the evicted page is back
+            }
+            int offset = row % pageSize;
+            return offset < page.items.size() ? page.items.value(offset, column) : null;
+        }
+
+        private void appendPage(int maxId, ItemColumns items) {
+            pages.add(new Page(maxId, items));
+            rowCount += items.size();
+            if (items.size() < pageSize) {
+                exhausted = true;
+            }
+        }
+
+        private void loadNextPage() {
+            if (exhausted || loadingNext || loader == null) {
+                return;
+            }
+            loadingNext = true;
+            int maxId = pages.get(pages.size() - 1).lastId - 1;
+            fetch(maxId, items -> {
+                loadingNext = false;
+                int first = rowCount;
+                appendPage(maxId, items);
+                if (rowCount > first) {
+                    fireTableRowsInserted(head.size() + first, head.size() + rowCount - 1);
+                } else {
+                    fireTableDataChanged(); // Only completeness changed
+                }
+                evictFarPages();
+            }, () -> loadingNext = false);
+        }
+
+        private void reload(int pageIndex) {
+            Page page = pages.get(pageIndex);
+            if (page.loading) {
+                return;
+            }
+            page.loading = true;
+            fetch(page.maxId, items -> {
+                page.loading = false;
+                // Keep the page the same length so row positions stay stable
+                items.truncate(page.size);
+                page.items = items;
+                int first = head.size() + pageIndex * pageSize;
+                fireTableRowsUpdated(first, first + page.size - 1);
+                evictFarPages();
+            }, () -> page.loading = false);
+        }
+
+        private void fetch(int maxId, Consumer<ItemColumns> onLoaded, Runnable onFailed) {
+            int current = generation;
+            PageLoader pageLoader = loader;
+            SearchPipeline.Cancellation cancellation = new SearchPipeline.Cancellation();
+            inFlight.add(cancellation);
+            DataAccess.onEdt(DataAccess.submit(() -> ItemColumns.of(pageLoader.load(maxId, pageSize, cancellation))), items -> {
+                inFlight.remove(cancellation);
+                if (current == generation) {
+                    onLoaded.accept(items);
+                }
+            }, error -> {
+                inFlight.remove(cancellation);
+                if (current == generation) {
+                    error.printStackTrace();
+                    onFailed.run();
+                }
+            });
+        }
+
+        // Drops the pages farthest from where the user is looking
+        private void evictFarPages() {
+            int resident = 0;
+            for (Page page : pages) {
+                if (page.items != null) {
+                    resident++;
+                }
+            }
+            while (resident > VIEW_RESIDENT_PAGES) {
+                int farthest = -1;
+                for (int i = 0; i < pages.size(); i++) {
+                    if (pages.get(i).items != null && (farthest < 0
+                            || Math.abs(i - lastAccessedPage) > Math.abs(farthest - lastAccessedPage))) {
+                        farthest = i;
+                    }
+                }
+                pages.get(farthest).items = null;
+                resident--;
+            }
+        }
+    }
+
+    // --- Matches each new report against the opposite table and stores the best candidates ---
+    static class MatchEngine {
+        private static final Metrics.OperationTimer STORE_TIMER = Metrics.timer("DbOperation", "matches.store");
+        record Match(int lostId, int foundId, double score) {
+        }
+
+        private static final double TEXT_WEIGHT = 0.55;
+        private static final double LOCATION_WEIGHT = 0.25;
+        private static final double DATE_WEIGHT = 0.20;
+        private static final double DATE_DECAY_DAYS = 14.0;
+        private static final int QUEUE_CAPACITY = 64;
+        // MATCH_CONCURRENCY threads behind a bounded queue of reports and import chunks. When the queue is full
+        // the publishing thread does the matching itself, so a bulk import slows to the matching rate instead
+        // of piling up work, and ends at most a queue's worth of chunks ahead of its matching
+        private static final ThreadPoolExecutor WORKERS = new ThreadPoolExecutor(MATCH_CONCURRENCY, MATCH_CONCURRENCY,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "lof-matcher");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        // Matches every successfully inserted item in the background
+        static void install() {
+            // Each process matches its own inserts; rows found by the change feed were matched where they were inserted
+            ItemEvents.addLocalListener((table, items) -> WORKERS.execute(() -> match(table, items)));
+        }
+
+        // One connection stores the matches of the whole list
+        private static void match(ItemTable table, List<Item> items) {
+            try {
+                List<Match> matches = new ArrayList<>();
+                for (Item item : items) {
+                    matches.addAll(findMatches(table, item));
+                }
+                if (!matches.isEmpty()) {
+                    long started = System.nanoTime();
+                    try (Connection conn = DBManager.getConnection()) {
+                        store(conn, matches);
+                        STORE_TIMER.success(started, matches.size());
+                    } catch (SQLException | RuntimeException e) {
+                        STORE_TIMER.failure(started, e);
+                        throw e;
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Matching failed for " + items.size() + " " + table + " item(s) from id "
+                        + items.get(0).id() + ": " + e.getMessage());
+            }
+        }
+
+        // Candidates come from the opposite table's search index (blocking), then get a full score
+        static List<Match> findMatches(ItemTable table, Item item) throws SQLException {
+            List<Item> candidates = SearchIndexes.text(table.opposite())
+                    .similar(item, MATCH_CANDIDATES, MATCH_MAX_TERM_DOCS);
+            Profile probe = new Profile(item);
+            List<Match> matches = new ArrayList<>();
+            for (Item candidate : candidates) {
+                Profile other = new Profile(candidate);
+                double score = table == ItemTable.LOST ? score(probe, other) : score(other, probe);
+                if (score >= MATCH_MIN_SCORE) {
+                    matches.add(table == ItemTable.LOST ? new Match(item.id(), candidate.id(), score)
+                                                        : new Match(candidate.id(), item.id(), score));
+                }
+            }
+            matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+            return matches.size() > MATCH_TOP_K ? new ArrayList<>(matches.subList(0, MATCH_TOP_K)) : matches;
+        }
+
+        // Tokenized once per item so a probe is not re-tokenized for every candidate
+        private static final class Profile {
+            final Set<String> name;
+            final Set<String> description;
+            final Set<String> locationTokens;
+            final String location;
+            final long epochDay;
+
+            Profile(Item item) {
+                name = new HashSet<>(SearchIndex.tokenize(item.name()));
+                description = new HashSet<>(SearchIndex.tokenize(item.description()));
+                locationTokens = new HashSet<>(SearchIndex.tokenize(item.location()));
+                location = item.location() == null ? null : item.location().trim().toLowerCase();
+                epochDay = item.date() == null ? Long.MIN_VALUE : item.date().toLocalDate().toEpochDay();
+            }
+        }
+
+        static double score(Item lost, Item found) {
+            return score(new Profile(lost), new Profile(found));
+        }
+
+        // 0..1: name/description similarity, same or overlapping location, and days between loss and find.
+        // Location and date alone (0.45) would clear MATCH_MIN_SCORE, so they only count once the text is similar.
+        private static double score(Profile lost, Profile found) {
+            double text = 0.7 * jaccard(lost.name, found.name) + 0.3 * jaccard(lost.description, found.description);
+            if (text < MATCH_MIN_TEXT_SCORE) {
+                return TEXT_WEIGHT * text;
+            }
+
+            double location = lost.location != null && lost.location.equals(found.location)
+                    ? 1.0 : jaccard(lost.locationTokens, found.locationTokens);
+
+            double date = 0.5; // Unknown dates neither help nor rule out a match
+            if (lost.epochDay != Long.MIN_VALUE && found.epochDay != Long.MIN_VALUE) {
+                long gap = found.epochDay - lost.epochDay;
+                date = gap < -2 ? 0.0 : Math.exp(-Math.max(0, gap) / DATE_DECAY_DAYS); // Found before lost: no
+            }
+            return TEXT_WEIGHT * text + LOCATION_WEIGHT * location + DATE_WEIGHT * date;
+        }
+
+        private static double jaccard(Set<String> a, Set<String> b) {
+            if (a.isEmpty() || b.isEmpty()) {
+                return 0.0;
+            }
+            int shared = 0;
+            for (String token : a) {
+                if (b.contains(token)) {
+                    shared++;
+                }
+            }
+            return (double) shared / (a.size() + b.size() - shared);
+        }
+
+        static void store(Connection conn, List<Match> matches) throws SQLException {
+            String sql = "INSERT INTO matches (lost_id, found_id, score) VALUES (?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE score = VALUES(score)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Match match : matches) {
+                    pstmt.setInt(1, match.lostId());
+                    pstmt.setInt(2, match.foundId());
+                    pstmt.setDouble(3, match.score());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    // --- Bulk import of found items from CSV/TSV through batched, chunked inserts ---
+    static class BulkImporter {
+        record RowError(long line, String message) {
+        }
+
+        record Result(long imported, long rejected, List<RowError> errors, long elapsedMs) {
+        }
+
+        @FunctionalInterface
+        interface Progress {
+            void rowsImported(long imported, long rejected);
+        }
+
+        private record Row(long line, String name, String description, String location, LocalDate date) {
+        }
+
+        private static final String[] DEFAULT_COLUMNS = {"item_name", "description", "location", "date_found"};
+
+        // Streams the file; rows are validated like ReportFoundFrame and inserted for the given user.
+        // Bad rows are reported and skipped without aborting the run.
+        static Result importFoundItems(Path file, int userId, int chunkSize, Progress progress)
+                throws IOException, SQLException {
+            long started = System.currentTimeMillis();
+            String lowerName = file.getFileName().toString().toLowerCase();
+            char delimiter = lowerName.endsWith(".tsv") || lowerName.endsWith(".tab") ? '\t' : ',';
+            List<RowError> errors = new ArrayList<>();
+            long[] counts = new long[2]; // imported, rejected
+
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                 Connection conn = DBManager.getConnection()) {
+                String reporter = username(conn, userId);
+                RecordReader records = new RecordReader(reader, delimiter);
+                List<String> record = records.next();
+                int[] columns = columnOrder(record);
+                if (columns != null) {
+                    record = records.next(); // First record was a header
+                } else {
+                    columns = new int[] {0, 1, 2, 3};
+                }
+
+                conn.setAutoCommit(false);
+                List<Row> chunk = new ArrayList<>(chunkSize);
+                for (; record != null; record = records.next()) {
+                    long line = records.recordLine();
+                    if (record.size() == 1 && record.get(0).isBlank()) {
+                        continue; // Empty line
+                    }
+                    String problem = null;
+                    Row row = null;
+                    try {
+                        row = parse(line, record, columns);
+                    } catch (IllegalArgumentException e) {
+                        problem = e.getMessage();
+                    }
+                    if (problem != null) {
+                        reject(errors, counts, line, problem);
+                        continue;
+                    }
+                    chunk.add(row);
+                    if (chunk.size() >= chunkSize) {
+                        insertChunk(conn, userId, reporter, chunk, errors, counts);
+                        chunk.clear();
+                        if (progress != null) {
+                            progress.rowsImported(counts[0], counts[1]);
+                        }
+                    }
+                }
+                insertChunk(conn, userId, reporter, chunk, errors, counts);
+            }
+            if (progress != null) {
+                progress.rowsImported(counts[0], counts[1]);
+            }
+            return new Result(counts[0], counts[1], errors, System.currentTimeMillis() - started);
+        }
+
+        private static String username(Connection conn, int userId) throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT username FROM users WHERE id = ?")) {
+                pstmt.setInt(1, userId);
+                ResultSet rs = pstmt.executeQuery();
+                if (!rs.next()) {
+                    throw new SQLException("Unknown user id " + userId);
+                }
+                return rs.getString(1);
+            }
+        }
+
+        // Column positions from a header record, or null if the record is data
+        private static int[] columnOrder(List<String> record) {
+            if (record == null) {
+                return null;
+            }
+            int[] columns = new int[DEFAULT_COLUMNS.length];
+            for (int c = 0; c < DEFAULT_COLUMNS.length; c++) {
+                columns[c] = -1;
+                for (int i = 0; i < record.size(); i++) {
+                    if (record.get(i).trim().equalsIgnoreCase(DEFAULT_COLUMNS[c])) {
+                        columns[c] = i;
+                    }
+                }
+            }
+            for (int column : columns) {
+                if (column < 0) {
+                    return null;
+                }
+            }
+            return columns;
+        }
+
+        // Same rules as the Report Found Item form, plus the column sizes of found_items
+        private static Row parse(long line, List<String> record, int[] columns) {
+            String[] values = new String[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                values[c] = columns[c] < record.size() ? record.get(columns[c]).trim() : "";
+                if (values[c].isEmpty()) {
+                    throw new IllegalArgumentException("Missing " + DEFAULT_COLUMNS[c]);
+                }
+            }
+            if (values[0].length() > 100) {
+                throw new IllegalArgumentException("item_name is longer than 100 characters");
+            }
+            if (values[2].length() > 255) {
+                throw new IllegalArgumentException("location is longer than 255 characters");
+            }
+            LocalDate date;
+            try {
+                date = LocalDate.parse(values[3]);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid date format \"" + values[3] + "\". Use YYYY-MM-DD");
+            }
+            return new Row(line, values[0], values[1], values[2], date);
+        }
+
+        private static void reject(List<RowError> errors, long[] counts, long line, String message) {
+            counts[1]++;
+            if (errors.size() < IMPORT_MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        // One batch and one transaction per chunk; if the batch fails, retries row by row
+        private static void insertChunk(Connection conn, int userId, String reporter, List<Row> chunk,
+                                        List<RowError> errors, long[] counts) throws SQLException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            String sql = "INSERT INTO found_items (user_id, item_name, description, location, date_found) VALUES (?, ?, ?, ?, ?)";
+            List<Item> inserted = new ArrayList<>(chunk.size());
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                try {
+                    for (Row row : chunk) {
+                        bind(pstmt, userId, row);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    for (int i = 0; keys.next() && i < chunk.size(); i++) {
+                        inserted.add(toItem(keys.getInt(1), userId, reporter, chunk.get(i)));
+                    }
+                    conn.commit();
+                } catch (SQLException batchFailure) {
+                    conn.rollback();
+                    inserted.clear();
+                    for (Row row : chunk) {
+                        try {
+                            bind(pstmt, userId, row);
+                            pstmt.executeUpdate();
+                            ResultSet keys = pstmt.getGeneratedKeys();
+                            if (keys.next()) {
+                                inserted.add(toItem(keys.getInt(1), userId, reporter, row));
+                            }
+                        } catch (SQLException rowFailure) {
+                            reject(errors, counts, row.line(), rowFailure.getMessage());
+                        }
+                    }
+                    conn.commit();
+                }
+            }
+            counts[0] += inserted.size();
+            if (!inserted.isEmpty()) {
+                ItemEvents.publishInserted(ItemTable.FOUND, inserted);
+            }
+        }
+
+        private static void bind(PreparedStatement pstmt, int userId, Row row) throws SQLException {
+            pstmt.setInt(1, userId);
+            pstmt.setString(2, row.name());
+            pstmt.setString(3, row.description());
+            pstmt.setString(4, row.location());
+            pstmt.setDate(5, java.sql.Date.valueOf(row.date()));
+        }
+
+        private static Item toItem(int id, int userId, String reporter, Row row) {
+            return new Item(id, userId, row.name(), row.description(), row.location(),
+                    java.sql.Date.valueOf(row.date()), reporter);
+        }
+
+        // Minimal RFC 4180 reader: quoted fields may contain delimiters, doubled quotes and newlines
+        static final class RecordReader {
+            private final Reader in;
+            private final char delimiter;
+            private long line = 1;
+            private long recordLine;
+            private int peeked = -2;
+
+            RecordReader(Reader in, char delimiter) {
+                this.in = in;
+                this.delimiter = delimiter;
+            }
+
+            // Line on which the last record returned by next() started
+            long recordLine() {
+                return recordLine;
+            }
+
+            List<String> next() throws IOException {
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+                recordLine = line;
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                while (true) {
+                    if (quoted) {
+                        if (c == -1) {
+                            throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                        }
+                        if (c == '"') {
+                            int n = read();
+                            if (n == '"') {
+                                field.append('"');
+                            } else {
+                                quoted = false;
+                                c = n;
+                                continue;
+                            }
+                        } else {
+                            if (c == '\n') {
+                                line++;
+                            }
+                            field.append((char) c);
+                        }
+                    } else if (c == '"' && field.length() == 0) {
+                        quoted = true;
+                    } else if (c == delimiter) {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\n' || c == '\r' || c == -1) {
+                        if (c == '\r') {
+                            int n = read();
+                            if (n != '\n') {
+                                peeked = n;
+                            }
+                        }
+                        if (c != -1) {
+                            line++;
+                        }
+                        fields.add(field.toString());
+                        return fields;
+                    } else {
+                        field.append((char) c);
+                    }
+                    c = read();
+                }
+            }
+
+            private int read() throws IOException {
+                if (peeked != -2) {
+                    int c = peeked;
+                    peeked = -2;
+                    return c;
+                }
+                return in.read();
+            }
+        }
+    }
+
+    // --- Streaming export of lost/found items to CSV or JSON Lines ---
+    static class ItemExporter {
+        enum Format {
+            CSV("CSV", ".csv"), JSONL("JSON Lines", ".jsonl");
+
+            final String label;
+            final String extension;
+
+            Format(String label, String extension) {
+                this.label = label;
+                this.extension = extension;
+            }
+
+            @Override
+            public String toString() {
+                return label;
+            }
+        }
+
+        // Null bounds and a blank location mean "no filter"
+        record Options(ItemTable table, Format format, boolean gzip, LocalDate from, LocalDate to, String location) {
+        }
+
+        private static final String[] COLUMNS = {"id", "user_id", "reporter", "item_name", "description", "location", "date"};
+
+        // Rows are fetched one at a time from a forward-only streaming result set and encoded straight
+        // into a fixed buffer, so memory stays flat regardless of the row count.
+        // Runs on a data-access thread
+        static long export(Options options, Path file) throws IOException, SQLException {
+            StringBuilder sql = new StringBuilder(options.table().selectSql()).append(" WHERE 1 = 1");
+            if (options.from() != null) {
+                sql.append(" AND i.").append(options.table().dateColumn).append(" >= ?");
+            }
+            if (options.to() != null) {
+                sql.append(" AND i.").append(options.table().dateColumn).append(" <= ?");
+            }
+            boolean byLocation = options.location() != null && !options.location().isBlank();
+            if (byLocation) {
+                sql.append(" AND i.location LIKE ?");
+            }
+            sql.append(" ORDER BY i.id");
+
+            try (Connection conn = DBManager.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql.toString(),
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                 FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 RowWriter out = new RowWriter(options.gzip()
+                         ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(channel), EXPORT_BUFFER_BYTES))
+                         : channel)) {
+                int p = 1;
+                if (options.from() != null) {
+                    pstmt.setDate(p++, java.sql.Date.valueOf(options.from()));
+                }
+                if (options.to() != null) {
+                    pstmt.setDate(p++, java.sql.Date.valueOf(options.to()));
+                }
+                if (byLocation) {
+                    pstmt.setString(p, "%" + ItemTable.escapeLike(options.location().trim()) + "%");
+                }
+                pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the result
+
+                if (options.format() == Format.CSV) {
+                    for (int c = 0; c < COLUMNS.length; c++) {
+                        out.csv(COLUMNS[c], c == 0);
+                    }
+                    out.endRow();
+                }
+                long rows = 0;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        java.sql.Date date = rs.getDate("item_date");
+                        String[] values = {
+                            Integer.toString(rs.getInt("id")),
+                            Integer.toString(rs.getInt("user_id")),
+                            rs.getString("username"),
+                            rs.getString("item_name"),
+                            rs.getString("description"),
+                            rs.getString("location"),
+                            date == null ? null : date.toString()
+                        };
+                        if (options.format() == Format.CSV) {
+                            for (int c = 0; c < values.length; c++) {
+                                out.csv(values[c], c == 0);
+                            }
+                        } else {
+                            out.json(COLUMNS, values);
+                        }
+                        out.endRow();
+                        rows++;
+                    }
+                }
+                return rows;
+            }
+        }
+
+        // Encodes text into a reusable direct buffer and drains it to the channel when full
+        private static final class RowWriter implements AutoCloseable {
+            private final WritableByteChannel channel;
+            private final ByteBuffer buffer = ByteBuffer.allocateDirect(EXPORT_BUFFER_BYTES);
+            private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+            private final StringBuilder row = new StringBuilder(256);
+
+            RowWriter(WritableByteChannel channel) {
+                this.channel = channel;
+            }
+
+            void csv(String value, boolean first) {
+                if (!first) {
+                    row.append(',');
+                }
+                if (value == null) {
+                    return;
+                }
+                boolean quote = false;
+                for (int i = 0; i < value.length() && !quote; i++) {
+                    char c = value.charAt(i);
+                    quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+                }
+                if (!quote) {
+                    row.append(value);
+                    return;
+                }
+                row.append('"');
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+                    if (c == '"') {
+                        row.append('"');
+                    }
+                    row.append(c);
+                }
+                row.append('"');
+            }
+
+            void json(String[] names, String[] values) {
+                row.append('{');
+                for (int c = 0; c < names.length; c++) {
+                    if (c > 0) {
+                        row.append(',');
+                    }
+                    row.append('"').append(names[c]).append("\":");
+                    if (values[c] == null) {
+                        row.append("null");
+                    } else if (c < 2) {
+                        row.append(values[c]); // id and user_id are numbers
+                    } else {
+                        Json.appendString(row, values[c]);
+                    }
+                }
+                row.append('}');
+            }
+
+
+            void endRow() throws IOException {
+                row.append('\n');
+                CharBuffer chars = CharBuffer.wrap(row);
+                while (true) {
+                    CoderResult result = encoder.encode(chars, buffer, true);
+                    if (result.isOverflow()) {
+                        drain();
+                    } else if (result.isUnderflow()) {
+                        break;
+                    } else {
+                        result.throwException();
+                    }
+                }
+                encoder.reset();
+                row.setLength(0);
+            }
+
+            private void drain() throws IOException {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    drain();
+                } finally {
+                    channel.close();
+                }
+            }
+        }
+
+        // Command line: --export lost|found FILE [--from YYYY-MM-DD] [--to YYYY-MM-DD] [--location TEXT]
+        // The format follows the file name (.jsonl or .csv, optionally with .gz)
+        static int runCommandLine(String[] args) {
+            try {
+                if (args.length < 3) {
+                    throw new IllegalArgumentException("Usage: --export lost|found FILE [--from DATE] [--to DATE] [--location TEXT]");
+                }
+                ItemTable table = switch (args[1].toLowerCase()) {
+                    case "lost" -> ItemTable.LOST;
+                    case "found" -> ItemTable.FOUND;
+                    default -> throw new IllegalArgumentException("Unknown item table: " + args[1]);
+                };
+                Path file = Path.of(args[2]);
+                String name = file.getFileName().toString().toLowerCase();
+                boolean gzip = name.endsWith(".gz");
+                Format format = name.replaceFirst("\\.gz$", "").endsWith(".jsonl") ? Format.JSONL : Format.CSV;
+                LocalDate from = null;
+                LocalDate to = null;
+                String location = null;
+                for (int i = 3; i + 1 < args.length; i += 2) {
+                    switch (args[i]) {
+                        case "--from" -> from = LocalDate.parse(args[i + 1]);
+                        case "--to" -> to = LocalDate.parse(args[i + 1]);
+                        case "--location" -> location = args[i + 1];
+                        default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                }
+                long started = System.currentTimeMillis();
+                long rows = export(new Options(table, format, gzip, from, to, location), file);
+                System.out.println("Exported " + rows + " rows to " + file + " in " + (System.currentTimeMillis() - started) + " ms");
+                return 0;
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                System.err.println(e.getMessage());
+                return 2;
+            } catch (IOException | SQLException e) {
+                e.printStackTrace();
+                return 1;
+            }
+        }
+    }
+
+    // --- Change feed: one shared poll for rows newer than the last seen id, delivered to the indexes and open views ---
+    // AUTO_INCREMENT ids are handed out at insert time but become visible at commit, so a row in a long
+    // transaction (a bulk import commits every 1000 rows) can appear below a mark the feed already passed.
+    // Each poll therefore also lists the ids in the FEED_LAG_IDS below the mark and delivers any it has
+    // not seen yet. Rows another process moved to the archive tables are published as removals, so this
+    // process's caches and in-memory indexes drop them as well.
+    static class ChangeFeed {
+        interface Subscriber {
+            // Called on the EDT with the new rows of one table, oldest first
+            void itemsAdded(ItemTable table, List<Item> items);
+        }
+
+        private static final List<Subscriber> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+        private static final int[] LAST_SEEN_ID = new int[ItemTable.values().length]; // -1 = not read yet
+        // Ids within FEED_LAG_IDS below the mark that were delivered or existed when polling started
+        private static final Map<ItemTable, TreeSet<Integer>> KNOWN_IDS = new EnumMap<>(ItemTable.class);
+        // archived_at is stamped before the batch commits, so rows this much older than the newest one seen
+        // are read again; ItemEvents drops the ids it already published
+        static final long ARCHIVE_LAG_MS = 10_000;
+        private static final Map<ItemTable, Timestamp> ARCHIVE_STARTED = new EnumMap<>(ItemTable.class);
+        private static final Map<ItemTable, Timestamp> ARCHIVE_MARK = new EnumMap<>(ItemTable.class);
+
+        static {
+            Arrays.fill(LAST_SEEN_ID, -1);
+            for (ItemTable table : ItemTable.values()) {
+                KNOWN_IDS.put(table, new TreeSet<>());
+            }
+        }
+        private static final ScheduledExecutorService POLLER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "lof-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private static CompletableFuture<Void> started;
+
+        // Takes the marks on the poller thread and then polls for the rest of the process. The search
+        // indexes wait for it before reading a table, so every row they miss is past a mark.
+        static synchronized CompletableFuture<Void> start() {
+            if (started == null || started.isCompletedExceptionally()) {
+                started = CompletableFuture.runAsync(() -> {
+                    for (ItemTable table : ItemTable.values()) {
+                        try {
+                            if (LAST_SEEN_ID[table.ordinal()] < 0) {
+                                seed(table);
+                            }
+                        } catch (SQLException e) {
+                            throw new CompletionException(e);
+                        }
+                    }
+                }, POLLER);
+                started.thenRun(() -> POLLER.scheduleWithFixedDelay(ChangeFeed::poll, FEED_INTERVAL_MS,
+                        FEED_INTERVAL_MS, TimeUnit.MILLISECONDS));
+            }
+            return started;
+        }
+
+        static void subscribe(Subscriber subscriber) {
+            SUBSCRIBERS.add(subscriber);
+            start();
+        }
+
+        static void unsubscribe(Subscriber subscriber) {
+            SUBSCRIBERS.remove(subscriber);
+        }
+
+        // Start from whatever exists now; views and indexes load their own first snapshot
+        private static void seed(ItemTable table) throws SQLException {
+            ItemRepository repository = ItemRepository.of(table);
+            int maxId = repository.maxId();
+            KNOWN_IDS.get(table).addAll(repository.findIdsBetween(maxId - FEED_LAG_IDS, maxId));
+            Timestamp now = ArchiveRepository.SHARED.now();
+            ARCHIVE_STARTED.put(table, now);
+            ARCHIVE_MARK.put(table, now);
+            LAST_SEEN_ID[table.ordinal()] = maxId;
+        }
+
+        // Runs on the poller thread; full rows are read only past the high-water mark or for late ids below it
+        private static void poll() {
+            for (ItemTable table : ItemTable.values()) {
+                try {
+                    ItemRepository repository = ItemRepository.of(table);
+                    TreeSet<Integer> known = KNOWN_IDS.get(table);
+                    int lastSeen = LAST_SEEN_ID[table.ordinal()];
+                    if (lastSeen < 0) {
+                        seed(table); // The first seed failed for this table
+                        continue;
+                    }
+                    int firstLate = -1;
+                    for (int id : repository.findIdsBetween(lastSeen - FEED_LAG_IDS, lastSeen)) {
+                        if (!known.contains(id)) {
+                            firstLate = id;
+                            break;
+                        }
+                    }
+                    if (firstLate >= 0) {
+                        List<Item> late = new ArrayList<>();
+                        for (Item item : repository.findBetween(firstLate - 1, lastSeen)) {
+                            if (!known.contains(item.id())) {
+                                late.add(item);
+                            }
+                        }
+                        deliver(table, late, known);
+                    }
+                    List<Item> items;
+                    do {
+                        items = repository.findNewerThan(lastSeen, FEED_BATCH);
+                        if (items.isEmpty()) {
+                            break;
+                        }
+                        lastSeen = items.get(items.size() - 1).id();
+                        LAST_SEEN_ID[table.ordinal()] = lastSeen;
+                        deliver(table, items, known);
+                    } while (items.size() == FEED_BATCH);
+                    known.headSet(lastSeen - FEED_LAG_IDS, true).clear();
+                    pollArchived(table);
+                } catch (SQLException | RuntimeException e) {
+                    e.printStackTrace(); // Try again on the next poll
+                }
+            }
+        }
+
+        // Rows archived before polling started were already gone when this process read the tables
+        private static void pollArchived(ItemTable table) throws SQLException {
+            Timestamp mark = ARCHIVE_MARK.get(table);
+            Timestamp since = new Timestamp(Math.max(ARCHIVE_STARTED.get(table).getTime(), mark.getTime() - ARCHIVE_LAG_MS));
+            ArchiveRepository.Archived last = new ArchiveRepository.Archived(0, since);
+            List<ArchiveRepository.Archived> archived;
+            do {
+                archived = ArchiveRepository.SHARED.findArchivedAfter(table, since, last, FEED_BATCH);
+                if (archived.isEmpty()) {
+                    break;
+                }
+                last = archived.get(archived.size() - 1);
+                if (last.archivedAt().after(mark)) {
+                    mark = last.archivedAt();
+                    ARCHIVE_MARK.put(table, mark);
+                }
+                List<Integer> ids = new ArrayList<>(archived.size());
+                for (ArchiveRepository.Archived row : archived) {
+                    ids.add(row.id());
+                }
+                ItemEvents.publishRemoved(table, ids);
+            } while (archived.size() == FEED_BATCH);
+        }
+
+        private static void deliver(ItemTable table, List<Item> items, Set<Integer> known) {
+            if (items.isEmpty()) {
+                return;
+            }
+            for (Item item : items) {
+                known.add(item.id());
+                ItemEvents.publishDiscovered(table, item);
+            }
+            SwingUtilities.invokeLater(() -> {
+                for (Subscriber subscriber : SUBSCRIBERS) {
+                    subscriber.itemsAdded(table, items);
+                }
+            });
+        }
+    }
+
+    // --- Debounced, cancellable search-as-you-type ---
+    // All methods except stats() must be called on the EDT.
+    static class SearchPipeline<T> {
+        @FunctionalInterface
+        interface SearchTask<T> {
+            T run(String query, Cancellation cancellation) throws SQLException;
+        }
+
+        // Lets a running search register its statement so a newer search can cancel it
+        static final class Cancellation {
+            private Statement statement;
+            private boolean cancelled;
+
+            <S extends Statement> S track(S stmt) throws SQLException {
+                boolean rejected;
+                synchronized (this) {
+                    rejected = cancelled;
+                    if (!rejected) {
+                        statement = stmt;
+                    }
+                }
+                if (rejected) {
+                    stmt.close();
+                    throw new SQLException("Search was superseded by a newer query", "70100");
+                }
+                stmt.setQueryTimeout(SEARCH_QUERY_TIMEOUT_S);
+                return stmt;
+            }
+
+            boolean cancel() {
+                Statement running;
+                synchronized (this) {
+                    if (cancelled) {
+                        return false;
+                    }
+                    cancelled = true;
+                    running = statement;
+                }
+                if (running != null) {
+                    try {
+                        running.cancel();
+                    } catch (SQLException ignored) {
+                        // Statement already finished or was closed
+                    }
+                }
+                return true;
+            }
+        }
+
+        record Stats(long issued, long coalesced, long cancelled, long staleDropped) {
+        }
+
+        // Keystroke-to-results time as the user sees it, and the part of it spent updating Swing models
+        private static final Metrics.OperationTimer END_TO_END = Metrics.timer("Ui", "search.endToEnd");
+        private static final Metrics.OperationTimer SHOW_RESULTS = Metrics.timer("Ui", "search.showResults");
+        private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        private final Component window;
+        private final String metricsName;
+        private final SearchTask<T> task;
+        private final BiConsumer<String, T> onResult;
+        private final Consumer<Throwable> onError;
+        private final javax.swing.Timer debounce;
+        private final LongAdder issued = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder staleDropped = new LongAdder();
+        private String pendingQuery = "";
+        private int generation;
+        private Cancellation inFlight;
+
+        SearchPipeline(Component window, SearchTask<T> task, BiConsumer<String, T> onResult,
+                       Consumer<Throwable> onError) {
+            this.window = window;
+            this.task = task;
+            this.onResult = onResult;
+            this.onError = onError;
+            this.debounce = new javax.swing.Timer(SEARCH_DEBOUNCE_MS, e -> issue());
+            this.debounce.setRepeats(false);
+            this.metricsName = window.getClass().getSimpleName() + "-" + INSTANCES.incrementAndGet();
+            Metrics.register("SearchPipeline", metricsName, this::stats, null);
+        }
+
+        // Called per keystroke: restarts the debounce window and supersedes any running search
+        void request(String query) {
+            pendingQuery = query;
+            if (debounce.isRunning()) {
+                coalesced.increment();
+            }
+            generation++;
+            cancelInFlight();
+            debounce.restart();
+        }
+
+        // Runs a search immediately, e.g. for the initial load or the Clear button
+        void runNow(String query) {
+            debounce.stop();
+            pendingQuery = query;
+            issue();
+        }
+
+        void close() {
+            debounce.stop();
+            generation++;
+            cancelInFlight();
+            Metrics.unregister("SearchPipeline", metricsName);
+        }
+
+        Stats stats() {
+            return new Stats(issued.sum(), coalesced.sum(), cancelled.sum(), staleDropped.sum());
+        }
+
+        private void issue() {
+            int current = ++generation;
+            cancelInFlight();
+            Cancellation cancellation = new Cancellation();
+            inFlight = cancellation;
+            issued.increment();
+            String query = pendingQuery;
+            long started = System.nanoTime();
+            DBManager.setBusy(window, true);
+            DataAccess.onEdt(DataAccess.submit(() -> task.run(query, cancellation)), result -> {
+                if (current != generation) {
+                    staleDropped.increment();
+                    return;
+                }
+                inFlight = null;
+                DBManager.setBusy(window, false);
+                long showing = System.nanoTime();
+                onResult.accept(query, result);
+                SHOW_RESULTS.success(showing, 0);
+                END_TO_END.success(started, 0);
+            }, error -> {
+                if (current != generation) {
+                    staleDropped.increment(); // Usually the cancellation of a superseded query
+                    return;
+                }
+                inFlight = null;
+                DBManager.setBusy(window, false);
+                END_TO_END.failure(started, error);
+                onError.accept(error);
+            });
+        }
+
+        private void cancelInFlight() {
+            if (inFlight != null && inFlight.cancel()) {
+                cancelled.increment();
+            }
+            inFlight = null;
+        }
+    }
+
+    // --- Cache of stored credentials so repeat logins skip the users table ---
+    static class CredentialCache {
+        // userId is -1 and hash null for a username that does not exist
+        record Credentials(int userId, String hash, long expiresAt) {
+            boolean exists() {
+                return hash != null;
+            }
+        }
+
+        record Stats(long hits, long misses, long negativeHits, long evictions, long invalidations, int size) {
+        }
+
+        private static final LongAdder HITS = new LongAdder();
+        private static final LongAdder MISSES = new LongAdder();
+        private static final LongAdder NEGATIVE_HITS = new LongAdder();
+        private static final LongAdder EVICTIONS = new LongAdder();
+        private static final LongAdder INVALIDATIONS = new LongAdder();
+
+        // Access-ordered, so the eldest entry is the least recently used one
+        private static final Map<String, Credentials> ENTRIES = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Credentials> eldest) {
+                if (size() > CREDENTIAL_CACHE_SIZE) {
+                    EVICTIONS.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        // Bumped by every invalidation; a load that raced with one is not cached
+        private static long generation;
+
+        static {
+            Metrics.register("CredentialCache", "shared", CredentialCache::stats, null);
+        }
+
+        // Returns the user id if the password matches, -1 otherwise.
+        // A mismatch against a cached hash is rechecked against the database in case the password changed.
+        // Runs on a data-access thread
+        static int verify(String username, String password) throws SQLException {
+            String hashedPassword = DBManager.hashPassword(password);
+            Credentials cached = cached(username);
+            if (cached != null && (!cached.exists() || cached.hash().equals(hashedPassword))) {
+                return cached.exists() ? cached.userId() : -1;
+            }
+            Credentials loaded = load(username);
+            return loaded.exists() && loaded.hash().equals(hashedPassword) ? loaded.userId() : -1;
+        }
+
+        // Call after creating a user or changing a password
+        static void invalidate(String username) {
+            synchronized (ENTRIES) {
+                generation++;
+                if (ENTRIES.remove(username) != null) {
+                    INVALIDATIONS.increment();
+                }
+            }
+        }
+
+        static Stats stats() {
+            synchronized (ENTRIES) {
+                return new Stats(HITS.sum(), MISSES.sum(), NEGATIVE_HITS.sum(), EVICTIONS.sum(),
+                        INVALIDATIONS.sum(), ENTRIES.size());
+            }
+        }
+
+        private static Credentials cached(String username) {
+            synchronized (ENTRIES) {
+                Credentials entry = ENTRIES.get(username);
+                if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                    HITS.increment();
+                    if (!entry.exists()) {
+                        NEGATIVE_HITS.increment();
+                    }
+                    return entry;
+                }
+                if (entry != null) {
+                    ENTRIES.remove(username);
+                }
+            }
+            MISSES.increment();
+            return null;
+        }
+
+        private static Credentials load(String username) throws SQLException {
+            long loadGeneration;
+            synchronized (ENTRIES) {
+                loadGeneration = generation;
+            }
+            UserRepository.StoredCredentials stored = UserRepository.SHARED.findCredentials(username);
+            long now = System.currentTimeMillis();
+            Credentials loaded = stored != null
+                    ? new Credentials(stored.userId(), stored.passwordHash(), now + CREDENTIAL_TTL_MS)
+                    : new Credentials(-1, null, now + CREDENTIAL_NEGATIVE_TTL_MS);
+            synchronized (ENTRIES) {
+                if (generation == loadGeneration) {
+                    ENTRIES.put(username, loaded);
+                }
+            }
+            return loaded;
+        }
+    }
+
+    // --- Shared cache of item listings and search results, patched or invalidated on insert ---
+    static class ResultCache {
+        // Query is trimmed and lower-cased; every search mode is case-insensitive. Since is null for any date
+        record Key(ItemTable table, SearchMode mode, String query, LocalDate since) {
+        }
+
+        record Stats(long hits, long misses, long patches, long invalidations, long evictions, int entries, long bytes) {
+        }
+
+        private record Entry(SearchResults results, long bytes) {
+        }
+
+        private static final LongAdder HITS = new LongAdder();
+        private static final LongAdder MISSES = new LongAdder();
+        private static final LongAdder PATCHES = new LongAdder();
+        private static final LongAdder INVALIDATIONS = new LongAdder();
+        private static final LongAdder EVICTIONS = new LongAdder();
+
+        // Access-ordered, so iteration starts at the least recently used entry
+        private static final Map<Key, Entry> ENTRIES = new LinkedHashMap<>(64, 0.75f, true);
+        // Per table; bumped by every insert so a load that raced with one is not cached
+        private static final long[] VERSIONS = new long[ItemTable.values().length];
+        private static long bytes;
+
+        static {
+            ItemEvents.addListener(ResultCache::onInserted);
+            ItemEvents.addRemovalListener(ResultCache::onRemoved);
+            Metrics.register("ResultCache", "shared", ResultCache::stats, null);
+        }
+
+        // Cached results for the query, or the loader's results, cached if no insert happened meanwhile.
+        // Runs on a data-access thread
+        static SearchResults get(ItemTable table, SearchMode mode, String query, LocalDate since,
+                                 DataAccess.SqlTask<SearchResults> loader) throws SQLException {
+            Key key = new Key(table, mode, query.trim().toLowerCase(Locale.ROOT), since);
+            long version;
+            synchronized (ENTRIES) {
+                Entry entry = ENTRIES.get(key);
+                if (entry != null) {
+                    HITS.increment();
+                    return entry.results();
+                }
+                version = VERSIONS[table.ordinal()];
+            }
+            MISSES.increment();
+            SearchResults results = loader.call();
+            synchronized (ENTRIES) {
+                if (VERSIONS[table.ordinal()] == version && !ENTRIES.containsKey(key)) {
+                    store(key, results);
+                }
+            }
+            return results;
+        }
+
+        static Stats stats() {
+            synchronized (ENTRIES) {
+                return new Stats(HITS.sum(), MISSES.sum(), PATCHES.sum(), INVALIDATIONS.sum(), EVICTIONS.sum(),
+                        ENTRIES.size(), bytes);
+            }
+        }
+
+        // Exact-match first pages are newest first, so a matching insert is prepended and the page
+        // keeps its length; later pages are fetched by keyset and pick up the row pushed off the end.
+        // Ranked and fuzzy scores depend on the whole table, so those entries are dropped instead.
+        private static void onInserted(ItemTable table, Item item) {
+            synchronized (ENTRIES) {
+                VERSIONS[table.ordinal()]++;
+                List<Key> dropped = new ArrayList<>();
+                List<Map.Entry<Key, SearchResults>> patched = new ArrayList<>();
+                for (Map.Entry<Key, Entry> cached : ENTRIES.entrySet()) {
+                    Key key = cached.getKey();
+                    if (key.table() != table) {
+                        continue;
+                    }
+                    SearchResults results = cached.getValue().results();
+                    if (key.mode() != SearchMode.EXACT || results.pages() == null) {
+                        dropped.add(key);
+                    } else if (item.matches(key.query()) && ItemSearch.datedSince(item, key.since())) {
+                        List<Item> items = new ArrayList<>(results.items().size() + 1);
+                        items.add(item);
+                        items.addAll(results.items());
+                        if (items.size() > VIEW_PAGE_SIZE) {
+                            items.remove(items.size() - 1);
+                        }
+                        patched.add(Map.entry(key, new SearchResults(items, null, results.pages())));
+                    }
+                }
+                for (Key key : dropped) {
+                    bytes -= ENTRIES.remove(key).bytes();
+                    INVALIDATIONS.increment();
+                }
+                for (Map.Entry<Key, SearchResults> patch : patched) {
+                    bytes -= ENTRIES.remove(patch.getKey()).bytes();
+                    store(patch.getKey(), patch.getValue());
+                    PATCHES.increment();
+                }
+            }
+        }
+
+        private static void onRemoved(ItemTable table, List<Integer> ids) {
+            synchronized (ENTRIES) {
+                VERSIONS[table.ordinal()]++;
+                Iterator<Map.Entry<Key, Entry>> entries = ENTRIES.entrySet().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<Key, Entry> cached = entries.next();
+                    if (cached.getKey().table() == table) {
+                        bytes -= cached.getValue().bytes();
+                        entries.remove();
+                        INVALIDATIONS.increment();
+                    }
+                }
+            }
+        }
+
+        // Callers hold the ENTRIES lock
+        private static void store(Key key, SearchResults results) {
+            long size = estimateBytes(results);
+            if (size > RESULT_CACHE_MAX_BYTES) {
+                return;
+            }
+            ENTRIES.put(key, new Entry(results, size));
+            bytes += size;
+            Iterator<Map.Entry<Key, Entry>> eldest = ENTRIES.entrySet().iterator();
+            while (ENTRIES.size() > RESULT_CACHE_MAX_ENTRIES || bytes > RESULT_CACHE_MAX_BYTES) {
+                bytes -= eldest.next().getValue().bytes();
+                eldest.remove();
+                EVICTIONS.increment();
+            }
+        }
+
+        // Rough retained size: object headers plus Latin-1 string payloads
+        private static long estimateBytes(SearchResults results) {
+            long size = 128 + (results.suggestion() == null ? 0 : 48 + results.suggestion().length());
+            for (Item item : results.items()) {
+                size += 64 + 24 + 24; // Item, its Date and the list slot
+                for (String field : new String[] {item.name(), item.description(), item.location(), item.reporter()}) {
+                    size += field == null ? 0 : 48 + field.length();
+                }
+            }
+            return size;
+        }
+    }
+
+    // --- Prefix completion over distinct field values, ranked by how often each was reported ---
+    // The base is immutable and compact: every value in one char[], sorted case-insensitively, with a
+    // segment tree over the counts that yields the k most frequent values of a prefix range in O(k log n).
+    // Reports since the last build go into a small delta that is folded into a new base in the background.
+    // Everything except load() must be called on the EDT.
+    static class CompletionIndex {
+        record Completion(String value, int count) {
+        }
+
+        private static final class DeltaEntry {
+            final String value;
+            int count;
+
+            DeltaEntry(String value) {
+                this.value = value;
+            }
+        }
+
+        private final String column;
+        private Base base = Base.EMPTY;
+        private final TreeMap<String, DeltaEntry> delta = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private boolean loading;
+        private boolean merging;
+
+        CompletionIndex(String column) {
+            this.column = column;
+        }
+
+        // Starts the first load from both item tables; later calls do nothing unless that load failed
+        void ensureLoaded() {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            DataAccess.onEdt(DataAccess.submit(this::load), loaded -> base = loaded, error -> {
+                loading = false;
+                System.err.println("Could not load " + column + " completions: " + error.getMessage());
+            });
+        }
+
+        // Runs on a data-access thread
+        private Base load() throws SQLException {
+            Map<String, Integer> spellings = new HashMap<>();
+            for (ItemTable table : ItemTable.values()) {
+                for (ItemRepository.ValueCount row : ItemRepository.of(table).countValues(column)) {
+                    String value = normalize(row.value());
+                    if (!value.isEmpty()) {
+                        spellings.merge(value, row.count(), Integer::sum);
+                    }
+                }
+            }
+            // Spellings that differ only in case are one value, shown the way it is most often written
+            TreeMap<String, int[]> totals = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // {total, best spelling's count}
+            TreeMap<String, String> shown = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            spellings.forEach((value, count) -> {
+                int[] total = totals.computeIfAbsent(value, v -> new int[2]);
+                total[0] += count;
+                if (count > total[1]) {
+                    total[1] = count;
+                    shown.put(value, value);
+                }
+            });
+            String[] sorted = shown.values().toArray(new String[0]);
+            int[] counts = new int[sorted.length];
+            int i = 0;
+            for (int[] total : totals.values()) {
+                counts[i++] = total[0];
+            }
+            return Base.build(sorted, counts, AUTOCOMPLETE_MAX_ENTRIES);
+        }
+
+        // Counts one more report of the value
+        void record(String raw) {
+            String value = normalize(raw);
+            if (value.isEmpty()) {
+                return;
+            }
+            delta.computeIfAbsent(value, DeltaEntry::new).count++;
+            if (delta.size() > AUTOCOMPLETE_DELTA_LIMIT && !merging) {
+                merging = true;
+                Base current = base;
+                List<DeltaEntry> snapshot = new ArrayList<>(delta.size());
+                for (DeltaEntry entry : delta.values()) {
+                    DeltaEntry copy = new DeltaEntry(entry.value);
+                    copy.count = entry.count;
+                    snapshot.add(copy);
+                }
+                CompletableFuture.supplyAsync(() -> current.merge(snapshot, AUTOCOMPLETE_MAX_ENTRIES))
+                        .whenComplete((merged, error) -> SwingUtilities.invokeLater(() -> {
+                            merging = false;
+                            if (error != null) {
+                                error.printStackTrace();
+                                return;
+                            }
+                            base = merged;
+                            for (DeltaEntry folded : snapshot) {
+                                DeltaEntry entry = delta.get(folded.value);
+                                if (entry != null && (entry.count -= folded.count) <= 0) {
+                                    delta.remove(folded.value);
+                                }
+                            }
+                        }));
+            }
+        }
+
+        // Most frequent values starting with the typed text, case-insensitively
+        List<Completion> complete(String typed, int limit) {
+            String prefix = normalize(typed);
+            if (prefix.isEmpty()) {
+                return List.of();
+            }
+            Base b = base;
+            int lo = b.lowerBound(prefix, false);
+            int hi = b.lowerBound(prefix, true);
+            List<Completion> candidates = new ArrayList<>(limit * 2);
+            // A value outside the base top-k can only overtake them through the delta, so these two sets suffice
+            for (int index : b.topK(lo, hi, limit)) {
+                String value = b.value(index);
+                DeltaEntry recent = delta.get(value);
+                candidates.add(new Completion(value, b.counts[index] + (recent == null ? 0 : recent.count)));
+            }
+            for (DeltaEntry recent : delta.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                int index = b.indexOf(recent.value);
+                if (index < lo || index >= hi || !containsIgnoreCase(candidates, recent.value)) {
+                    candidates.add(new Completion(index >= 0 ? b.value(index) : recent.value,
+                            (index >= 0 ? b.counts[index] : 0) + recent.count));
+                }
+            }
+            candidates.removeIf(c -> c.value().equals(typed));
+            candidates.sort((x, y) -> x.count() != y.count() ? Integer.compare(y.count(), x.count())
+                    : String.CASE_INSENSITIVE_ORDER.compare(x.value(), y.value()));
+            return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
+        }
+
+        private static boolean containsIgnoreCase(List<Completion> candidates, String value) {
+            for (Completion candidate : candidates) {
+                if (candidate.value().equalsIgnoreCase(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Trimmed, with runs of whitespace collapsed, so "Library  2nd floor " and "Library 2nd floor" are one value
+        static String normalize(String value) {
+            if (value == null) {
+                return "";
+            }
+            StringBuilder out = new StringBuilder(value.length());
+            boolean space = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    space = out.length() > 0;
+                } else {
+                    if (space) {
+                        out.append(' ');
+                        space = false;
+                    }
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+
+        // Same order as String.CASE_INSENSITIVE_ORDER
+        private static int compareChars(char a, char b) {
+            if (a == b) {
+                return 0;
+            }
+            a = Character.toUpperCase(a);
+            b = Character.toUpperCase(b);
+            if (a == b) {
+                return 0;
+            }
+            return Character.toLowerCase(a) - Character.toLowerCase(b);
+        }
+
+        private static final class Base {
+            static final Base EMPTY = build(new String[0], new int[0], Integer.MAX_VALUE);
+
+            final char[] text;
+            final int[] starts; // value i is text[starts[i], starts[i + 1])
+            final int[] counts;
+            final int[] tree; // index of the highest count in each node's range, -1 for padding
+            final int leaves;
+
+            private Base(char[] text, int[] starts, int[] counts) {
+                this.text = text;
+                this.starts = starts;
+                this.counts = counts;
+                int n = counts.length;
+                int size = 1;
+                while (size < n) {
+                    size <<= 1;
+                }
+                leaves = size;
+                tree = new int[2 * size];
+                for (int i = 0; i < size; i++) {
+                    tree[size + i] = i < n ? i : -1;
+                }
+                for (int node = size - 1; node >= 1; node--) {
+                    tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+                }
+            }
+
+            // values must be sorted case-insensitively and unique; keeps the maxEntries most frequent
+            static Base build(String[] values, int[] counts, int maxEntries) {
+                boolean[] keep = null;
+                if (values.length > maxEntries) {
+                    int[] sortedCounts = counts.clone();
+                    Arrays.sort(sortedCounts);
+                    int threshold = sortedCounts[sortedCounts.length - maxEntries];
+                    int ties = maxEntries;
+                    for (int c : counts) {
+                        if (c > threshold) {
+                            ties--;
+                        }
+                    }
+                    keep = new boolean[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        keep[i] = counts[i] > threshold || counts[i] == threshold && ties-- > 0;
+                    }
+                }
+                int n = 0;
+                int chars = 0;
+                for (int i = 0; i < values.length; i++) {
+                    if (keep == null || keep[i]) {
+                        n++;
+                        chars += values[i].length();
+                    }
+                }
+                char[] text = new char[chars];
+                int[] starts = new int[n + 1];
+                int[] kept = new int[n];
+                int j = 0;
+                for (int i = 0; i < values.length; i++) {
+                    if (keep == null || keep[i]) {
+                        values[i].getChars(0, values[i].length(), text, starts[j]);
+                        starts[j + 1] = starts[j] + values[i].length();
+                        kept[j++] = counts[i];
+                    }
+                }
+                return new Base(text, starts, kept);
+            }
+
+            // A new base with the delta's counts added; both sides are in case-insensitive order.
+            // The cap is raised by the delta's size so values reported just now are not evicted at once.
+            Base merge(List<DeltaEntry> additions, int maxEntries) {
+                int n = counts.length;
+                List<String> values = new ArrayList<>(n + additions.size());
+                List<Integer> merged = new ArrayList<>(n + additions.size());
+                int i = 0;
+                int a = 0;
+                while (i < n || a < additions.size()) {
+                    int order = i == n ? 1 : a == additions.size() ? -1 : compareValue(i, additions.get(a).value);
+                    if (order < 0) {
+                        values.add(value(i));
+                        merged.add(counts[i++]);
+                    } else if (order > 0) {
+                        values.add(additions.get(a).value);
+                        merged.add(additions.get(a++).count);
+                    } else {
+                        values.add(value(i));
+                        merged.add(counts[i++] + additions.get(a++).count);
+                    }
+                }
+                int[] mergedCounts = new int[merged.size()];
+                for (int k = 0; k < mergedCounts.length; k++) {
+                    mergedCounts[k] = merged.get(k);
+                }
+                return build(values.toArray(new String[0]), mergedCounts, maxEntries + additions.size());
+            }
+
+            String value(int i) {
+                return new String(text, starts[i], starts[i + 1] - starts[i]);
+            }
+
+            private int compareValue(int i, String other) {
+                int start = starts[i];
+                int length = starts[i + 1] - start;
+                for (int k = 0; k < Math.min(length, other.length()); k++) {
+                    int order = compareChars(text[start + k], other.charAt(k));
+                    if (order != 0) {
+                        return order;
+                    }
+                }
+                return length - other.length();
+            }
+
+            // Negative if value i sorts before every value with the prefix, 0 if it has it, positive if after
+            private int comparePrefix(int i, String prefix) {
+                int start = starts[i];
+                int length = starts[i + 1] - start;
+                for (int k = 0; k < Math.min(length, prefix.length()); k++) {
+                    int order = compareChars(text[start + k], prefix.charAt(k));
+                    if (order != 0) {
+                        return order;
+                    }
+                }
+                return length >= prefix.length() ? 0 : -1;
+            }
+
+            // First value at or after the prefix range (after = false), or first value past it (after = true)
+            int lowerBound(String prefix, boolean after) {
+                int lo = 0;
+                int hi = counts.length;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    int order = comparePrefix(mid, prefix);
+                    if (order < 0 || after && order == 0) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                return lo;
+            }
+
+            int indexOf(String value) {
+                int lo = 0;
+                int hi = counts.length - 1;
+                while (lo <= hi) {
+                    int mid = (lo + hi) >>> 1;
+                    int order = compareValue(mid, value);
+                    if (order == 0) {
+                        return mid;
+                    }
+                    if (order < 0) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+                return -1;
+            }
+
+            // Indices of the k highest counts in [lo, hi), highest first
+            int[] topK(int lo, int hi, int k) {
+                if (lo >= hi || k <= 0) {
+                    return new int[0];
+                }
+                // Each entry is {lo, hi, best of that range}; splitting around the best keeps the queue at 2k
+                PriorityQueue<int[]> ranges = new PriorityQueue<>((x, y) -> better(x[2], y[2]) == x[2] ? -1 : 1);
+                ranges.add(new int[] {lo, hi, argMax(lo, hi)});
+                int[] top = new int[Math.min(k, hi - lo)];
+                for (int found = 0; found < top.length; found++) {
+                    int[] range = ranges.poll();
+                    int best = range[2];
+                    top[found] = best;
+                    if (range[0] < best) {
+                        ranges.add(new int[] {range[0], best, argMax(range[0], best)});
+                    }
+                    if (best + 1 < range[1]) {
+                        ranges.add(new int[] {best + 1, range[1], argMax(best + 1, range[1])});
+                    }
+                }
+                return top;
+            }
+
+            private int argMax(int lo, int hi) {
+                int best = -1;
+                for (int l = lo + leaves, r = hi + leaves; l < r; l >>= 1, r >>= 1) {
+                    if ((l & 1) == 1) {
+                        best = better(best, tree[l++]);
+                    }
+                    if ((r & 1) == 1) {
+                        best = better(best, tree[--r]);
+                    }
+                }
+                return best;
+            }
+
+            // Higher count wins; ties go to the alphabetically first value
+            private int better(int x, int y) {
+                if (x < 0) {
+                    return y;
+                }
+                if (y < 0) {
+                    return x;
+                }
+                return counts[x] > counts[y] || counts[x] == counts[y] && x < y ? x : y;
+            }
+        }
+    }
+
+    // --- Autocomplete for the item name and location fields of the report forms ---
+    static class Autocomplete {
+        static final CompletionIndex ITEM_NAMES = new CompletionIndex("item_name");
+        static final CompletionIndex LOCATIONS = new CompletionIndex("location");
+
+        static {
+            ItemEvents.addListener((table, item) -> SwingUtilities.invokeLater(() -> {
+                ITEM_NAMES.record(item.name());
+                LOCATIONS.record(item.location());
+            }));
+        }
+
+        // Shows up to AUTOCOMPLETE_SUGGESTIONS completions under the field while typing.
+        // Up/Down select, Enter or a click accepts, Escape closes.
+        static void attach(JTextField field, CompletionIndex index) {
+            index.ensureLoaded();
+            DefaultListModel<CompletionIndex.Completion> model = new DefaultListModel<>();
+            JList<CompletionIndex.Completion> list = new JList<>(model);
+            list.setFocusable(false);
+            list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            list.setCellRenderer(new DefaultListCellRenderer() {
+                @Override
+                public Component getListCellRendererComponent(JList<?> l, Object value, int i, boolean selected, boolean focus) {
+                    CompletionIndex.Completion completion = (CompletionIndex.Completion) value;
+                    return super.getListCellRendererComponent(l, completion.value() + "  (" + completion.count() + ")",
+                            i, selected, focus);
+                }
+            });
+            JPopupMenu popup = new JPopupMenu();
+            popup.setFocusable(false);
+            popup.add(new JScrollPane(list));
+            boolean[] accepting = {false};
+
+            Runnable update = () -> {
+                if (accepting[0] || !field.isFocusOwner()) {
+                    popup.setVisible(false);
+                    return;
+                }
+                List<CompletionIndex.Completion> completions = index.complete(field.getText(), AUTOCOMPLETE_SUGGESTIONS);
+                if (completions.isEmpty()) {
+                    popup.setVisible(false);
+                    return;
+                }
+                model.clear();
+                model.addAll(completions);
+                list.setVisibleRowCount(completions.size());
+                popup.setPopupSize(field.getWidth(), list.getPreferredScrollableViewportSize().height + 6);
+                if (!popup.isVisible()) {
+                    popup.show(field, 0, field.getHeight());
+                }
+            };
+            Consumer<CompletionIndex.Completion> accept = completion -> {
+                accepting[0] = true;
+                field.setText(completion.value());
+                accepting[0] = false;
+                popup.setVisible(false);
+            };
+
+            field.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+                @Override
+                public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                    SwingUtilities.invokeLater(update);
+                }
+
+                @Override
+                public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                    SwingUtilities.invokeLater(update);
+                }
+
+                @Override
+                public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                }
+            });
+            field.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (!popup.isVisible()) {
+                        return;
+                    }
+                    int selected = list.getSelectedIndex();
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_DOWN -> list.setSelectedIndex(Math.min(selected + 1, model.size() - 1));
+                        case KeyEvent.VK_UP -> list.setSelectedIndex(Math.max(selected - 1, 0));
+                        case KeyEvent.VK_ENTER -> {
+                            if (selected < 0) {
+                                return;
+                            }
+                            accept.accept(model.get(selected));
+                        }
+                        case KeyEvent.VK_ESCAPE -> popup.setVisible(false);
+                        default -> {
+                            return;
+                        }
+                    }
+                    e.consume();
+                }
+            });
+            field.addFocusListener(new FocusAdapter() {
+                @Override
+                public void focusLost(FocusEvent e) {
+                    popup.setVisible(false);
+                }
+            });
+            list.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    int clicked = list.locationToIndex(e.getPoint());
+                    if (clicked >= 0) {
+                        accept.accept(model.get(clicked));
+                    }
+                }
+            });
+        }
+    }
+
+    // --- One search path for the view frames and the HTTP API, served through ResultCache ---
+    static class ItemSearch {
+        // First page of results; exact-match and full-text results carry a loader for further keyset pages.
+        // Runs on a data-access thread
+        static SearchResults query(ItemTable table, SearchMode mode, String query,
+                                   SearchPipeline.Cancellation cancellation) throws SQLException {
+            return query(table, mode, query, null, cancellation);
+        }
+
+        // Only items dated on or after since; null for any date
+        static SearchResults query(ItemTable table, SearchMode mode, String query, LocalDate since,
+                                   SearchPipeline.Cancellation cancellation) throws SQLException {
+            return ResultCache.get(table, mode, query, since, () -> search(table, mode, query, since, cancellation));
+        }
+
+        // Substring search over the table's archive, newest first in keyset pages; not cached.
+        // Runs on a data-access thread
+        static SearchResults archived(ItemTable table, String query, SearchPipeline.Cancellation cancellation)
+                throws SQLException {
+            ItemPageModel.PageLoader pages = archivePages(table, query);
+            return new SearchResults(pages.load(Integer.MAX_VALUE, VIEW_PAGE_SIZE, cancellation), null, pages);
+        }
+
+        static ItemPageModel.PageLoader archivePages(ItemTable table, String query) {
+            return (maxId, limit, c) -> ArchiveRepository.SHARED.searchLike(table, query, maxId, limit, c);
+        }
+
+        // Days back the item views look by default, or 0 for everything
+        static int recentDays() {
+            return VIEW_RECENT_DAYS >= 0 ? VIEW_RECENT_DAYS : ItemPartitions.knownPartitioned() ? 90 : 0;
+        }
+
+        // Lower date bound of the item views' default scope, or null when they show everything
+        static LocalDate recentSince(boolean includeOlder) {
+            int days = recentDays();
+            return includeOlder || days <= 0 ? null : LocalDate.now().minusDays(days);
+        }
+
+        static boolean datedSince(Item item, LocalDate since) {
+            return since == null || (item.date() != null && !item.date().toLocalDate().isBefore(since));
+        }
+
+        // Items inside the area whose name, description, location or reporter contains query, from the
+        // in-memory grid; one bounded list that does not go through ResultCache. Runs on a data-access thread
+        static SearchResults query(ItemTable table, GeoFilter area, String query) throws SQLException {
+            Predicate<Item> accept = query.isBlank() ? item -> true : item -> item.matches(query);
+            return new SearchResults(SearchIndexes.geo(table).search(area, accept, GEO_LIMIT), null);
+        }
+
+        // Null for the in-memory modes, which return one bounded list
+        static ItemPageModel.PageLoader pageLoader(ItemTable table, SearchMode mode, String query, LocalDate since) {
+            ItemRepository repository = ItemRepository.of(table);
+            return switch (mode) {
+                case EXACT -> (maxId, limit, c) -> repository.searchLike(query, since, maxId, limit, c);
+                case FULLTEXT -> (maxId, limit, c) -> repository.searchFullText(query, since, maxId, limit, c);
+                case RANKED, FUZZY -> null;
+            };
+        }
+
+        // Bypasses ResultCache. The in-memory modes rank the whole table and then drop items dated before since
+        static SearchResults search(ItemTable table, SearchMode mode, String query, LocalDate since,
+                                    SearchPipeline.Cancellation cancellation) throws SQLException {
+            SearchResults results = switch (mode) {
+                case RANKED -> new SearchResults(
+                        datedSince(SearchIndexes.text(table).search(query, SEARCH_RANKED_LIMIT), since), null);
+                case FUZZY -> {
+                    TrigramIndex.FuzzyResult fuzzy = SearchIndexes.fuzzy(table).search(query, SEARCH_FUZZY_LIMIT);
+                    yield new SearchResults(datedSince(fuzzy.items(), since), fuzzy.suggestion());
+                }
+                case EXACT, FULLTEXT -> {
+                    ItemPageModel.PageLoader pages = pageLoader(table, mode, query, since);
+                    yield new SearchResults(pages.load(Integer.MAX_VALUE, VIEW_PAGE_SIZE, cancellation), null, pages);
+                }
+            };
+            if (results.items().isEmpty() && results.suggestion() == null && !query.isEmpty()) {
+                // Nothing found: offer the closest spelling the fuzzy index knows about
+                TrigramIndex.FuzzyResult fuzzy = SearchIndexes.fuzzy(table).search(query, 1);
+                return new SearchResults(results.items(), fuzzy.suggestion(), results.pages());
+            }
+            return results;
+        }
+
+        private static List<Item> datedSince(List<Item> items, LocalDate since) {
+            if (since == null) {
+                return items;
+            }
+            List<Item> recent = new ArrayList<>(items.size());
+            for (Item item : items) {
+                if (datedSince(item, since)) {
+                    recent.add(item);
+                }
+            }
+            return recent;
+        }
+    }
+
+    // --- Minimal JSON: string escaping for writers and a parser for flat request objects ---
+    static class Json {
+        static StringBuilder appendString(StringBuilder out, String value) {
+            if (value == null) {
+                return out.append("null");
+            }
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> out.append("\\\"");
+                    case '\\' -> out.append("\\\\");
+                    case '\n' -> out.append("\\n");
+                    case '\r' -> out.append("\\r");
+                    case '\t' -> out.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                    }
+                }
+            }
+            return out.append('"');
+        }
+
+        static StringBuilder appendItem(StringBuilder out, Item item) {
+            out.append("{\"id\":").append(item.id()).append(",\"userId\":").append(item.userId()).append(",\"name\":");
+            appendString(out, item.name()).append(",\"description\":");
+            appendString(out, item.description()).append(",\"location\":");
+            appendString(out, item.location()).append(",\"date\":");
+            appendString(out, item.date() == null ? null : item.date().toString()).append(",\"reporter\":");
+            appendString(out, item.reporter());
+            if (item.hasCoordinates()) {
+                out.append(",\"latitude\":").append(item.latitude()).append(",\"longitude\":").append(item.longitude());
+            }
+            return out.append('}');
+        }
+
+        // One object whose values are strings, numbers, booleans or null; values come back as text
+        static Map<String, String> parseObject(String text) {
+            Parser parser = new Parser(text);
+            Map<String, String> fields = parser.object();
+            parser.skipSpace();
+            if (parser.pos != text.length()) {
+                throw new IllegalArgumentException("Unexpected content after the JSON object");
+            }
+            return fields;
+        }
+
+        private static final class Parser {
+            private final String text;
+            private int pos;
+
+            Parser(String text) {
+                this.text = text;
+            }
+
+            Map<String, String> object() {
+                Map<String, String> fields = new HashMap<>();
+                expect('{');
+                skipSpace();
+                if (peek() == '}') {
+                    pos++;
+                    return fields;
+                }
+                while (true) {
+                    skipSpace();
+                    String key = string();
+                    skipSpace();
+                    expect(':');
+                    skipSpace();
+                    fields.put(key, value());
+                    skipSpace();
+                    char c = next();
+                    if (c == '}') {
+                        return fields;
+                    }
+                    if (c != ',') {
+                        throw new IllegalArgumentException("Expected ',' or '}' at " + (pos - 1));
+                    }
+                }
+            }
+
+            private String value() {
+                char c = peek();
+                if (c == '"') {
+                    return string();
+                }
+                if (c == '{' || c == '[') {
+                    throw new IllegalArgumentException("Nested JSON values are not supported");
+                }
+                int start = pos;
+                while (pos < text.length() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                    pos++;
+                }
+                String literal = text.substring(start, pos);
+                if (literal.equals("null")) {
+                    return null;
+                }
+                if (!literal.equals("true") && !literal.equals("false") && !literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                    throw new IllegalArgumentException("Invalid JSON value at " + start);
+                }
+                return literal;
+            }
+
+            private String string() {
+                expect('"');
+                StringBuilder out = new StringBuilder();
+                while (true) {
+                    char c = next();
+                    if (c == '"') {
+                        return out.toString();
+                    }
+                    if (c != '\\') {
+                        out.append(c);
+                        continue;
+                    }
+                    char escaped = next();
+                    switch (escaped) {
+                        case '"', '\\', '/' -> out.append(escaped);
+                        case 'b' -> out.append('\b');
+                        case 'f' -> out.append('\f');
+                        case 'n' -> out.append('\n');
+                        case 'r' -> out.append('\r');
+                        case 't' -> out.append('\t');
+                        case 'u' -> {
+                            if (pos + 4 > text.length()) {
+                                throw new IllegalArgumentException("Truncated \\u escape");
+                            }
+                            out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                            pos += 4;
+                        }
+                        default -> throw new IllegalArgumentException("Invalid escape \\" + escaped);
+                    }
+                }
+            }
+
+            void skipSpace() {
+                while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                    pos++;
+                }
+            }
+
+            private char peek() {
+                if (pos >= text.length()) {
+                    throw new IllegalArgumentException("Unexpected end of JSON");
+                }
+                return text.charAt(pos);
+            }
+
+            private char next() {
+                char c = peek();
+                pos++;
+                return c;
+            }
+
+            private void expect(char c) {
+                if (next() != c) {
+                    throw new IllegalArgumentException("Expected '" + c + "' at " + (pos - 1));
+                }
+            }
+        }
+    }
+
+    // --- Headless HTTP API (--server): JSON endpoints over the same repositories, caches and validation ---
+    static class ApiServer {
+        // Thrown by handlers for a 4xx answer; the message is sent to the client
+        static final class ApiException extends Exception {
+            final int status;
+
+            ApiException(int status, String message) {
+                super(message);
+                this.status = status;
+            }
+        }
+
+        @FunctionalInterface
+        interface Handler {
+            void handle(HttpExchange exchange) throws IOException, SQLException, ApiException;
+        }
+
+        private record Session(int userId, long expiresAt) {
+        }
+
+        private static final Map<String, Session> SESSIONS = new ConcurrentHashMap<>();
+        private static final SecureRandom RANDOM = new SecureRandom();
+
+        // Endpoints:
+        //   POST /api/signup            {"username","email","password"}
+        //   POST /api/login             {"username","password"} -> {"userId","token"}
+        //   POST /api/items/lost|found  {"name","description","location","date","latitude","longitude"},
+        //                               Authorization: Bearer <token>
+        //   POST /api/items/lost|found/resolve  {"id"}, Authorization: Bearer <token>; the reporter only
+        //   GET  /api/items/lost|found  ?q=&mode=exact|fulltext|ranked|fuzzy&limit=&before=<id>&days=
+        //                               &near=<lat,lon>&radius=<m> | &bbox=<s,w,n,e> | &archive=true
+        //   GET  /api/health
+        static HttpServer start(String host, int port) throws IOException, SQLException {
+            SchemaMigrations.ensureCurrent();
+            SearchIndexes.warmUp();
+            ItemPartitions.install();
+            ItemArchiver.install();
+            MatchEngine.install();
+            ChangeFeed.start(); // Already started by warmUp; keeps indexes and caches current with other clients
+
+            HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+            server.setExecutor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lof-http-", 0).factory()));
+            route(server, "/api/signup", "POST", ApiServer::signUp);
+            route(server, "/api/login", "POST", ApiServer::login);
+            route(server, "/api/health", "GET", ApiServer::health);
+            for (ItemTable table : ItemTable.values()) {
+                String path = "/api/items/" + table.name().toLowerCase(Locale.ROOT);
+                server.createContext(path, exchange -> dispatch(exchange, path, switch (exchange.getRequestMethod()) {
+                    case "GET" -> e -> search(e, table);
+                    case "POST" -> e -> report(e, table);
+                    default -> e -> {
+                        throw new ApiException(405, "Method not allowed");
+                    };
+                }));
+                route(server, path + "/resolve", "POST", e -> resolve(e, table));
+            }
+            server.start();
+            return server;
+        }
+
+        private static void route(HttpServer server, String path, String method, Handler handler) {
+            server.createContext(path, exchange -> dispatch(exchange, path, exchange.getRequestMethod().equals(method)
+                    ? handler : e -> {
+                        throw new ApiException(405, "Method not allowed");
+                    }));
+        }
+
+        // The exchange is closed only after any error response has been written
+        private static void dispatch(HttpExchange exchange, String path, Handler handler) throws IOException {
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    throw new ApiException(404, "Not found");
+                }
+                handler.handle(exchange);
+            } catch (ApiException e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (SQLException e) {
+                e.printStackTrace();
+                sendError(exchange, 503, "Database unavailable");
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                sendError(exchange, 500, "Internal error");
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private static void signUp(HttpExchange exchange) throws IOException, SQLException, ApiException {
+            Map<String, String> body = body(exchange);
+            String username = field(body, "username");
+            String email = field(body, "email");
+            String password = field(body, "password");
+            String invalid = Validation.signUpError(username, email, password);
+            if (invalid != null) {
+                throw new ApiException(400, invalid);
+            }
+            if (UserRepository.SHARED.exists(username, email)) {
+                throw new ApiException(409, "Username or email already exists");
+            }
+            if (!UserRepository.SHARED.create(username, email, password)) {
+                throw new ApiException(500, "Failed to create account");
+            }
+            send(exchange, 201, new StringBuilder("{\"created\":true,\"username\":").append(quote(username)).append('}'));
+        }
+
+        private static void login(HttpExchange exchange) throws IOException, SQLException, ApiException {
+            Map<String, String> body = body(exchange);
+            String username = field(body, "username");
+            String password = field(body, "password");
+            int userId = username.isEmpty() || password.isEmpty() ? -1 : CredentialCache.verify(username, password);
+            if (userId == -1) {
+                throw new ApiException(401, "Invalid username or password");
+            }
+            byte[] secret = new byte[32];
+            RANDOM.nextBytes(secret);
+            String token = HexFormat.of().formatHex(secret);
+            long now = System.currentTimeMillis();
+            SESSIONS.values().removeIf(session -> session.expiresAt() < now);
+            SESSIONS.put(token, new Session(userId, now + API_SESSION_TTL_MS));
+            send(exchange, 200, new StringBuilder("{\"userId\":").append(userId).append(",\"token\":\"").append(token).append("\"}"));
+        }
+
+        private static void health(HttpExchange exchange) throws IOException {
+            send(exchange, 200, new StringBuilder("{\"status\":\"ok\",\"pool\":").append(quote(DBManager.poolStats().toString()))
+                    .append(",\"resultCache\":").append(quote(ResultCache.stats().toString())).append('}'));
+        }
+
+        private static void report(HttpExchange exchange, ItemTable table) throws IOException, SQLException, ApiException {
+            int userId = authenticatedUser(exchange);
+            Map<String, String> body = body(exchange);
+            String name = field(body, "name");
+            String description = field(body, "description");
+            String location = field(body, "location");
+            String date = field(body, "date");
+            String invalid = Validation.reportError(name, description, location, date);
+            if (invalid != null) {
+                throw new ApiException(400, invalid);
+            }
+            double latitude = coordinate(body.get("latitude"), "latitude", 90);
+            double longitude = coordinate(body.get("longitude"), "longitude", 180);
+            if (Double.isNaN(latitude) != Double.isNaN(longitude)) {
+                throw new ApiException(400, "latitude and longitude must be given together");
+            }
+            Item item = ItemRepository.of(table).insert(userId, name, description, location, LocalDate.parse(date),
+                    latitude, longitude);
+            if (item == null) {
+                throw new ApiException(500, "Failed to report item");
+            }
+            send(exchange, 201, Json.appendItem(new StringBuilder(), item));
+        }
+
+        private static void resolve(HttpExchange exchange, ItemTable table) throws IOException, SQLException, ApiException {
+            int userId = authenticatedUser(exchange);
+            String id = field(body(exchange), "id");
+            int itemId;
+            try {
+                itemId = Integer.parseInt(id);
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "id must be a number");
+            }
+            if (!ItemRepository.of(table).markResolved(itemId, userId)) {
+                throw new ApiException(404, "No such item reported by you");
+            }
+            send(exchange, 200, new StringBuilder("{\"resolved\":true,\"id\":").append(itemId).append('}'));
+        }
+
+        // Streams up to limit items as they are fetched, one keyset page at a time, with chunked encoding.
+        // "next" is the before= value for the following page, or null when there is none.
+        // near=lat,lon with radius= (meters), or bbox=south,west,north,east, restricts the search to an area;
+        // area results come as one page, nearest first for near. days= keeps items dated within that many days.
+        private static void search(HttpExchange exchange, ItemTable table) throws IOException, SQLException, ApiException {
+            Map<String, String> params = queryParams(exchange);
+            String query = params.getOrDefault("q", "").trim();
+            SearchMode mode = switch (params.getOrDefault("mode", "exact").toLowerCase(Locale.ROOT)) {
+                case "exact" -> SearchMode.EXACT;
+                case "fulltext" -> SearchMode.FULLTEXT;
+                case "ranked" -> SearchMode.RANKED;
+                case "fuzzy" -> SearchMode.FUZZY;
+                default -> throw new ApiException(400, "mode must be exact, fulltext, ranked or fuzzy");
+            };
+            int limit = intParam(params, "limit", VIEW_PAGE_SIZE, 1, API_MAX_LIMIT);
+            int before = intParam(params, "before", 0, 0, Integer.MAX_VALUE);
+            int days = intParam(params, "days", -1, 0, 36_500);
+            LocalDate since = days < 0 ? null : LocalDate.now().minusDays(days);
+            GeoFilter area = area(params, since);
+            boolean archive = Boolean.parseBoolean(params.getOrDefault("archive", "false"));
+            SearchPipeline.Cancellation cancellation = new SearchPipeline.Cancellation();
+
+            // The first page goes through the shared result cache; later pages are read by keyset
+            List<Item> page;
+            String suggestion = null;
+            ItemPageModel.PageLoader pages;
+            int requested = VIEW_PAGE_SIZE;
+            if (archive) {
+                pages = ItemSearch.archivePages(table, query);
+                requested = Math.min(limit, VIEW_PAGE_SIZE);
+                page = pages.load(before == 0 ? Integer.MAX_VALUE : before - 1, requested, cancellation);
+            } else if (area != null) {
+                if (before != 0) {
+                    throw new ApiException(400, "before is not supported by area searches");
+                }
+                page = ItemSearch.query(table, area, query).items();
+                pages = null;
+            } else if (before == 0) {
+                SearchResults first = ItemSearch.query(table, mode, query, since, cancellation);
+                page = first.items();
+                suggestion = first.suggestion();
+                pages = first.pages();
+            } else {
+                pages = ItemSearch.pageLoader(table, mode, query, since);
+                if (pages == null) {
+                    throw new ApiException(400, "before is only supported by the exact and fulltext modes");
+                }
+                requested = Math.min(limit, VIEW_PAGE_SIZE);
+                page = pages.load(before - 1, requested, cancellation);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0); // Chunked
+            Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024);
+            out.write("{\"items\":[");
+            StringBuilder json = new StringBuilder(512);
+            int written = 0;
+            int lastId = 0;
+            boolean more;
+            while (true) {
+                boolean cut = false;
+                for (Item item : page) {
+                    if (written == limit) {
+                        cut = true;
+                        break;
+                    }
+                    json.setLength(0);
+                    if (written > 0) {
+                        json.append(',');
+                    }
+                    out.append(Json.appendItem(json, item));
+                    written++;
+                    lastId = item.id();
+                }
+                // A short page means the keyset is exhausted; at the limit the next page may still turn out empty
+                more = pages != null && (cut || page.size() >= requested);
+                if (!more || written == limit) {
+                    break;
+                }
+                out.flush(); // Hand this page to the client before fetching the next one
+                requested = Math.min(limit - written, VIEW_PAGE_SIZE);
+                page = pages.load(lastId - 1, requested, cancellation);
+            }
+            json.setLength(0);
+            json.append("],\"next\":").append(more ? String.valueOf(lastId) : "null").append(",\"suggestion\":");
+            Json.appendString(json, suggestion).append('}');
+            out.append(json);
+            out.flush();
+        }
+
+        private static int authenticatedUser(HttpExchange exchange) throws ApiException {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            Session session = header != null && header.startsWith("Bearer ") ? SESSIONS.get(header.substring(7).trim()) : null;
+            if (session == null || session.expiresAt() < System.currentTimeMillis()) {
+                throw new ApiException(401, "Log in first and send Authorization: Bearer <token>");
+            }
+            return session.userId();
+        }
+
+        private static Map<String, String> body(HttpExchange exchange) throws IOException, ApiException {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(API_MAX_BODY_BYTES + 1);
+                if (bytes.length > API_MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body too large");
+                }
+                return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Invalid JSON: " + e.getMessage());
+            }
+        }
+
+        private static String field(Map<String, String> body, String name) {
+            String value = body.get(name);
+            return value == null ? "" : value.trim();
+        }
+
+        private static Map<String, String> queryParams(HttpExchange exchange) throws ApiException {
+            Map<String, String> params = new HashMap<>();
+            String raw = exchange.getRequestURI().getRawQuery();
+            if (raw == null || raw.isEmpty()) {
+                return params;
+            }
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                try {
+                    String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+                    String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                    params.putIfAbsent(key, value);
+                } catch (IllegalArgumentException e) {
+                    throw new ApiException(400, "Malformed query string"); // e.g. a % not followed by two hex digits
+                }
+            }
+            return params;
+        }
+
+        private static GeoFilter area(Map<String, String> params, LocalDate since) throws ApiException {
+            String near = params.get("near");
+            String bbox = params.get("bbox");
+            if (near == null && bbox == null) {
+                return null;
+            }
+            if (near != null && bbox != null) {
+                throw new ApiException(400, "Use either near or bbox, not both");
+            }
+            if (near != null) {
+                double[] point = coordinates(near, 2, "near");
+                int radius = intParam(params, "radius", 200, 1, 50_000);
+                return GeoFilter.near(near, point[0], point[1], radius, since);
+            }
+            double[] box = coordinates(bbox, 4, "bbox");
+            return GeoFilter.box(bbox, box[0], box[1], box[2], box[3], since);
+        }
+
+        // Comma-separated latitude, longitude pairs
+        private static double[] coordinates(String value, int count, String name) throws ApiException {
+            String[] parts = value.split(",", -1);
+            if (parts.length != count) {
+                throw new ApiException(400, name + " must be " + count + " comma-separated numbers");
+            }
+            double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = coordinate(parts[i].trim(), name, i % 2 == 0 ? 90 : 180);
+                if (Double.isNaN(values[i])) {
+                    throw new ApiException(400, name + " must be " + count + " comma-separated numbers");
+                }
+            }
+            return values;
+        }
+
+        // NaN when the value is missing
+        private static double coordinate(String value, String name, double limit) throws ApiException {
+            if (value == null || value.isEmpty()) {
+                return Double.NaN;
+            }
+            try {
+                double parsed = Double.parseDouble(value);
+                if (!(Math.abs(parsed) <= limit)) {
+                    throw new ApiException(400, name + " is out of range");
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, name + " must be a number");
+            }
+        }
+
+        private static int intParam(Map<String, String> params, String name, int fallback, int min, int max)
+                throws ApiException {
+            String value = params.get(name);
+            if (value == null || value.isEmpty()) {
+                return fallback;
+            }
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed < min || parsed > max) {
+                    throw new ApiException(400, name + " must be between " + min + " and " + max);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, name + " must be a number");
+            }
+        }
+
+        private static String quote(String value) {
+            return Json.appendString(new StringBuilder(), value).toString();
+        }
+
+        private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+            byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+            if (exchange.getResponseCode() != -1) {
+                return; // Headers already sent, e.g. a search that failed mid-stream; the client sees a cut-off body
+            }
+            send(exchange, status, new StringBuilder("{\"error\":").append(quote(message)).append('}'));
+        }
+
+        // Command line: --server [PORT]
+        static void runCommandLine(String[] args) {
+            int port;
+            try {
+                port = args.length > 1 ? Integer.parseInt(args[1]) : API_DEFAULT_PORT;
+            } catch (NumberFormatException e) {
+                System.err.println("Usage: --server [PORT]");
+                System.exit(2);
+                return;
+            }
+            try {
+                HttpServer server = start(API_HOST, port);
+                System.out.println("Lost and Found API listening on http://" + API_HOST + ":" + server.getAddress().getPort() + "/api/");
+            } catch (IOException | SQLException e) {
+                e.printStackTrace();
+                System.exit(1);
             }
         }
     }
@@ -104,6 +6653,10 @@ static class DBManager {
         private JTextField emailField;
         private JPasswordField passwordField;
         private JLabel statusLabel;
+        private JButton submitButton;
+        private JButton loginButton;
+
+        private enum SignUpOutcome { ALREADY_EXISTS, CREATED, FAILED }
 
         public SignUpFrame() {
             setTitle("Sign Up");
@@ -140,10 +6693,10 @@ static class DBManager {
             constraints.gridx = 1; constraints.gridy = 2; panel.add(passwordField, constraints);
 
             // Buttons
-            JButton submitButton = new JButton("Sign Up");
+            submitButton = new JButton("Sign Up");
             constraints.gridx = 1; constraints.gridy = 3; panel.add(submitButton, constraints);
 
-            JButton loginButton = new JButton("Go to Login");
+            loginButton = new JButton("Go to Login");
             constraints.gridx = 0; constraints.gridy = 3; panel.add(loginButton, constraints);
 
             // Status Label
@@ -168,77 +6721,52 @@ static class DBManager {
             String email = emailField.getText().trim();
             String password = new String(passwordField.getPassword()).trim();
 
-            if (username.isEmpty() || email.isEmpty() || password.isEmpty()) {
-                DBManager.showError(this, "Please fill in all fields");
-                statusLabel.setText("Please fill in all fields");
-                statusLabel.setForeground(Color.RED);
-                return;
-            }
-
-            if (!email.matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$")) {
-                DBManager.showError(this, "Please enter a valid email address");
-                statusLabel.setText("Invalid email format");
-                statusLabel.setForeground(Color.RED);
-                return;
-            }
-
-            if (password.length() < 6) {
-                DBManager.showError(this, "Password must be at least 6 characters long");
-                statusLabel.setText("Password too short");
-                statusLabel.setForeground(Color.RED);
-                return;
-            }
-
-            if (userExists(username, email)) {
-                DBManager.showError(this, "Username or email already exists");
-                statusLabel.setText("Username or email already exists");
+            String invalid = Validation.signUpError(username, email, password);
+            if (invalid != null) {
+                DBManager.showError(this, invalid);
+                statusLabel.setText(invalid);
                 statusLabel.setForeground(Color.RED);
                 return;
             }
 
-            if (insertUser(username, email, password)) {
-                JOptionPane.showMessageDialog(this,
-                    "Sign Up Successful!\nWelcome, " + username + "!",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-                statusLabel.setText("Sign up successful! Welcome " + username);
-                statusLabel.setForeground(Color.GREEN);
-                clearFields();
-                setVisible(false);
-                new LoginFrame().setVisible(true);
-            } else {
+            statusLabel.setText("Creating account...");
+            statusLabel.setForeground(Color.BLUE);
+            DBManager.setBusy(this, true, submitButton, loginButton);
+            DataAccess.onEdt(DataAccess.submit(() -> {
+                if (UserRepository.SHARED.exists(username, email)) {
+                    return SignUpOutcome.ALREADY_EXISTS;
+                }
+                return UserRepository.SHARED.create(username, email, password) ? SignUpOutcome.CREATED : SignUpOutcome.FAILED;
+            }), outcome -> {
+                DBManager.setBusy(this, false, submitButton, loginButton);
+                switch (outcome) {
+                    case ALREADY_EXISTS -> {
+                        DBManager.showError(this, "Username or email already exists");
+                        statusLabel.setText("Username or email already exists");
+                        statusLabel.setForeground(Color.RED);
+                    }
+                    case CREATED -> {
+                        JOptionPane.showMessageDialog(this,
+                            "Sign Up Successful!\nWelcome, " + username + "!",
+                            "Success",
+                            JOptionPane.INFORMATION_MESSAGE);
+                        statusLabel.setText("Sign up successful! Welcome " + username);
+                        statusLabel.setForeground(Color.GREEN);
+                        clearFields();
+                        setVisible(false);
+                        new LoginFrame().setVisible(true);
+                    }
+                    case FAILED -> {
+                        statusLabel.setText("Failed to create account");
+                        statusLabel.setForeground(Color.RED);
+                    }
+                }
+            }, error -> {
+                DBManager.setBusy(this, false, submitButton, loginButton);
+                DBManager.showError(this, error.getMessage());
                 statusLabel.setText("Failed to create account");
                 statusLabel.setForeground(Color.RED);
-            }
-        }
-
-        private boolean userExists(String username, String email) {
-            String sql = "SELECT COUNT(*) FROM users WHERE username = ? OR email = ?";
-            try (Connection conn = DBManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, username);
-                pstmt.setString(2, email);
-                ResultSet rs = pstmt.executeQuery();
-                return rs.next() && rs.getInt(1) > 0;
-            } catch (SQLException ex) {
-                DBManager.showError(this, "Error checking existing user: " + ex.getMessage());
-                return false;
-            }
-        }
-
-        private boolean insertUser(String username, String email, String password) {
-            String hashedPassword = DBManager.hashPassword(password);
-            String sql = "INSERT INTO users (username, email, password) VALUES (?, ?, ?)";
-            try (Connection conn = DBManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, username);
-                pstmt.setString(2, email);
-                pstmt.setString(3, hashedPassword);
-                return pstmt.executeUpdate() > 0;
-            } catch (SQLException ex) {
-                DBManager.showError(this, "Error creating user: " + ex.getMessage());
-                return false;
-            }
+            });
         }
 
         private void clearFields() {
@@ -253,6 +6781,8 @@ static class DBManager {
         private JTextField usernameField;
         private JPasswordField passwordField;
         private JLabel statusLabel;
+        private JButton loginButton;
+        private JButton backButton;
 
         public LoginFrame() {
             setTitle("Login");
@@ -281,10 +6811,10 @@ static class DBManager {
             constraints.gridx = 1; constraints.gridy = 1; panel.add(passwordField, constraints);
 
             // Buttons
-            JButton loginButton = new JButton("Login");
+            loginButton = new JButton("Login");
             constraints.gridx = 1; constraints.gridy = 2; panel.add(loginButton, constraints);
 
-            JButton backButton = new JButton("Back to Sign Up");
+            backButton = new JButton("Back to Sign Up");
             constraints.gridx = 0; constraints.gridy = 2; panel.add(backButton, constraints);
 
             // Status Label
@@ -315,41 +6845,40 @@ static class DBManager {
                 return;
             }
 
-            int userId = getUserId(username, password);
-            if (userId > 0) {
-                JOptionPane.showMessageDialog(this,
-                    "Login Successful!\nWelcome back, " + username + "!",
-                    "Success",
-                    JOptionPane.INFORMATION_MESSAGE);
-                statusLabel.setText("Login successful! Welcome " + username);
-                statusLabel.setForeground(Color.GREEN);
-                clearFields();
-                setVisible(false);
-                new MainMenuFrame(userId, this).setVisible(true);
-            } else {
-                DBManager.showError(this, "Invalid username or password");
+            statusLabel.setText("Logging in...");
+            statusLabel.setForeground(Color.BLUE);
+            DBManager.setBusy(this, true, loginButton, backButton);
+            DataAccess.onEdt(DataAccess.submit(() -> getUserId(username, password)), userId -> {
+                DBManager.setBusy(this, false, loginButton, backButton);
+                if (userId > 0) {
+                    JOptionPane.showMessageDialog(this,
+                        "Login Successful!\nWelcome back, " + username + "!",
+                        "Success",
+                        JOptionPane.INFORMATION_MESSAGE);
+                    statusLabel.setText("Login successful! Welcome " + username);
+                    statusLabel.setForeground(Color.GREEN);
+                    clearFields();
+                    setVisible(false);
+                    new MainMenuFrame(userId, this).setVisible(true);
+                } else {
+                    DBManager.showError(this, "Invalid username or password");
+                    statusLabel.setText("Invalid credentials");
+                    statusLabel.setForeground(Color.RED);
+                }
+            }, error -> {
+                DBManager.setBusy(this, false, loginButton, backButton);
+                DBManager.showError(this, error.getMessage());
                 statusLabel.setText("Invalid credentials");
                 statusLabel.setForeground(Color.RED);
-            }
+            });
         }
 
-        private int getUserId(String username, String password) {
-            String hashedPassword = DBManager.hashPassword(password);
-            String sql = "SELECT id, password FROM users WHERE username = ?";
-            try (Connection conn = DBManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, username);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    String storedPassword = rs.getString("password");
-                    if (hashedPassword.equals(storedPassword)) {
-                        return rs.getInt("id");
-                    }
-                }
-                return -1;
+        // Runs on a data-access thread
+        private int getUserId(String username, String password) throws SQLException {
+            try {
+                return CredentialCache.verify(username, password);
             } catch (SQLException ex) {
-                DBManager.showError(this, "Error during login: " + ex.getMessage());
-                return -1;
+                throw new SQLException("Error during login: " + ex.getMessage(), ex);
             }
         }
 
@@ -371,28 +6900,37 @@ static class DBManager {
             this.loginFrame = loginFrame;
             setTitle("Lost and Found System");
             setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            setSize(400, 300);
+            setSize(400, 450);
             setLocationRelativeTo(null);
 
-            JPanel panel = new JPanel(new GridLayout(5, 1, 10, 10));
+            JPanel panel = new JPanel(new GridLayout(8, 1, 10, 10));
             panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
             JButton reportLostButton = new JButton("Report Lost Item");
             JButton reportFoundButton = new JButton("Report Found Item");
             JButton viewLostButton = new JButton("View Lost Items");
             JButton viewFoundButton = new JButton("View Found Items");
+            JButton importFoundButton = new JButton("Import Found Items (CSV)");
+            JButton exportButton = new JButton("Export Items");
+            JButton matchesButton = new JButton("My Matches");
             JButton logoutButton = new JButton("Logout");
 
             panel.add(reportLostButton);
             panel.add(reportFoundButton);
             panel.add(viewLostButton);
             panel.add(viewFoundButton);
+            panel.add(importFoundButton);
+            panel.add(exportButton);
+            panel.add(matchesButton);
             panel.add(logoutButton);
 
             reportLostButton.addActionListener(e -> new ReportLostFrame(userId).setVisible(true));
             reportFoundButton.addActionListener(e -> new ReportFoundFrame(userId).setVisible(true));
             viewLostButton.addActionListener(e -> new ViewLostFrame().setVisible(true));
             viewFoundButton.addActionListener(e -> new ViewFoundFrame().setVisible(true));
+            importFoundButton.addActionListener(e -> importFoundItems(importFoundButton));
+            exportButton.addActionListener(e -> exportItems(exportButton));
+            matchesButton.addActionListener(e -> new MatchesFrame(userId).setVisible(true));
             logoutButton.addActionListener(e -> {
                 setVisible(false);
                 loginFrame.setVisible(true);
@@ -400,6 +6938,198 @@ static class DBManager {
 
             add(panel);
         }
+
+        private void importFoundItems(JButton importButton) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Import found items");
+            chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "CSV or TSV (item_name, description, location, date_found)", "csv", "tsv", "tab", "txt"));
+            if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            Path file = chooser.getSelectedFile().toPath();
+            String label = importButton.getText();
+            DBManager.setBusy(this, true, importButton);
+            CompletableFuture<BulkImporter.Result> run = DataAccess.submitFile(() ->
+                BulkImporter.importFoundItems(file, userId, IMPORT_CHUNK_SIZE, (imported, rejected) ->
+                    SwingUtilities.invokeLater(() -> importButton.setText("Importing... " + imported + " rows"))));
+            DataAccess.onEdt(run, result -> {
+                DBManager.setBusy(this, false, importButton);
+                importButton.setText(label);
+                StringBuilder report = new StringBuilder()
+                    .append("Imported ").append(result.imported()).append(" found items in ")
+                    .append(result.elapsedMs()).append(" ms; ").append(result.rejected()).append(" rows rejected.\n");
+                for (BulkImporter.RowError error : result.errors()) {
+                    report.append("\nLine ").append(error.line()).append(": ").append(error.message());
+                }
+                if (result.errors().size() < result.rejected()) {
+                    report.append("\n... ").append(result.rejected() - result.errors().size()).append(" more");
+                }
+                JTextArea text = new JTextArea(report.toString(), 15, 60);
+                text.setEditable(false);
+                JOptionPane.showMessageDialog(this, new JScrollPane(text), "Import finished",
+                    result.rejected() == 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            }, error -> {
+                DBManager.setBusy(this, false, importButton);
+                importButton.setText(label);
+                error.printStackTrace();
+                DBManager.showError(this, "Import failed: " + error.getMessage());
+            });
+        }
+
+        private void exportItems(JButton exportButton) {
+            JComboBox<ItemTable> tableBox = new JComboBox<>(ItemTable.values());
+            JComboBox<ItemExporter.Format> formatBox = new JComboBox<>(ItemExporter.Format.values());
+            JCheckBox gzipBox = new JCheckBox("Compress (gzip)");
+            JTextField fromField = new JTextField();
+            JTextField toField = new JTextField();
+            JTextField locationField = new JTextField();
+            JPanel form = new JPanel(new GridLayout(6, 2, 5, 5));
+            form.add(new JLabel("Items:"));
+            form.add(tableBox);
+            form.add(new JLabel("Format:"));
+            form.add(formatBox);
+            form.add(new JLabel("From (YYYY-MM-DD):"));
+            form.add(fromField);
+            form.add(new JLabel("To (YYYY-MM-DD):"));
+            form.add(toField);
+            form.add(new JLabel("Location contains:"));
+            form.add(locationField);
+            form.add(new JLabel());
+            form.add(gzipBox);
+            if (JOptionPane.showConfirmDialog(this, form, "Export Items", JOptionPane.OK_CANCEL_OPTION,
+                    JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+                return;
+            }
+
+            LocalDate from;
+            LocalDate to;
+            try {
+                from = fromField.getText().isBlank() ? null : LocalDate.parse(fromField.getText().trim());
+                to = toField.getText().isBlank() ? null : LocalDate.parse(toField.getText().trim());
+            } catch (DateTimeParseException ex) {
+                DBManager.showError(this, "Invalid date format. Use YYYY-MM-DD");
+                return;
+            }
+            ItemTable table = (ItemTable) tableBox.getSelectedItem();
+            ItemExporter.Format format = (ItemExporter.Format) formatBox.getSelectedItem();
+            boolean gzip = gzipBox.isSelected();
+
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Export " + table.name().toLowerCase() + " items");
+            chooser.setSelectedFile(new java.io.File(table.tableName + format.extension + (gzip ? ".gz" : "")));
+            if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            Path file = chooser.getSelectedFile().toPath();
+            ItemExporter.Options options = new ItemExporter.Options(table, format, gzip, from, to, locationField.getText());
+
+            DBManager.setBusy(this, true, exportButton);
+            long started = System.currentTimeMillis();
+            DataAccess.onEdt(DataAccess.submitFile(() -> ItemExporter.export(options, file)), rows -> {
+                DBManager.setBusy(this, false, exportButton);
+                JOptionPane.showMessageDialog(this, "Exported " + rows + " items to " + file + " in "
+                    + (System.currentTimeMillis() - started) + " ms.");
+            }, error -> {
+                DBManager.setBusy(this, false, exportButton);
+                error.printStackTrace();
+                DBManager.showError(this, "Export failed: " + error.getMessage());
+            });
+        }
+    }
+
+    // --- Matches for the logged-in user's reports ---
+    static class MatchesFrame extends JFrame {
+        private final int userId;
+        private DefaultTableModel model;
+        private final List<MatchRepository.UserMatch> shown = new ArrayList<>(); // Parallel to the model's rows
+
+        public MatchesFrame(int userId) {
+            this.userId = userId;
+            setTitle("My Matches");
+            setSize(1000, 500);
+            setLocationRelativeTo(null);
+            setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+            setLayout(new BorderLayout(10, 10));
+
+            JLabel titleLabel = new JLabel("Possible matches for your reports", JLabel.CENTER);
+            titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
+            titleLabel.setBorder(BorderFactory.createEmptyBorder(15, 15, 0, 15));
+
+            String[] columns = {"Score", "Lost Item", "Lost At", "Date Lost", "Lost By",
+                                "Found Item", "Found At", "Date Found", "Found By"};
+            model = new DefaultTableModel(columns, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            JTable table = new JTable(model);
+            table.setFont(new Font("Arial", Font.PLAIN, 14));
+            table.setRowHeight(25);
+            table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
+
+            JScrollPane scrollPane = new JScrollPane(table);
+            scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 15, 15, 15));
+
+            // Resolving marks the user's own side of the match; the archiver later moves it out of the item tables
+            JButton resolveButton = new JButton("Mark my report resolved");
+            resolveButton.setEnabled(false);
+            table.getSelectionModel().addListSelectionListener(e -> resolveButton.setEnabled(table.getSelectedRow() >= 0));
+            resolveButton.addActionListener(e -> resolve(table.getSelectedRow(), resolveButton));
+            JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+            buttons.setBorder(BorderFactory.createEmptyBorder(0, 15, 10, 15));
+            buttons.add(resolveButton);
+
+            add(titleLabel, BorderLayout.NORTH);
+            add(scrollPane, BorderLayout.CENTER);
+            add(buttons, BorderLayout.SOUTH);
+
+            DBManager.setBusy(this, true);
+            DataAccess.onEdt(DataAccess.submit(() -> MatchRepository.SHARED.forUser(userId, 200)), matches -> {
+                DBManager.setBusy(this, false);
+                for (MatchRepository.UserMatch match : matches) {
+                    model.addRow(match.toRow());
+                    shown.add(match);
+                }
+                if (matches.isEmpty()) {
+                    titleLabel.setText("No matches for your reports yet");
+                }
+            }, error -> {
+                DBManager.setBusy(this, false);
+                error.printStackTrace();
+                DBManager.showError(this, "Error loading matches: " + error.getMessage());
+            });
+        }
+
+        private void resolve(int row, JButton resolveButton) {
+            if (row < 0) {
+                return;
+            }
+            MatchRepository.UserMatch match = shown.get(row);
+            DBManager.setBusy(this, true, resolveButton);
+            DataAccess.onEdt(DataAccess.submit(() -> {
+                // Whichever side (or both) this user reported
+                boolean lost = LostItemRepository.SHARED.markResolved(match.lostId(), userId);
+                boolean found = FoundItemRepository.SHARED.markResolved(match.foundId(), userId);
+                return lost || found;
+            }), resolved -> {
+                DBManager.setBusy(this, false, resolveButton);
+                if (resolved) {
+                    int index = shown.indexOf(match);
+                    if (index >= 0) {
+                        shown.remove(index);
+                        model.removeRow(index);
+                    }
+                } else {
+                    DBManager.showError(this, "Failed to resolve the report");
+                }
+            }, error -> {
+                DBManager.setBusy(this, false, resolveButton);
+                error.printStackTrace();
+                DBManager.showError(this, "Database error: " + error.getMessage());
+            });
+        }
     }
 
     // --- Report lost item frame ---
@@ -411,7 +7141,7 @@ static class DBManager {
             setTitle("Report Lost Item");
             // Use DISPOSE_ON_CLOSE for secondary windows
             setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-            setSize(450, 400);
+            setSize(450, 440);
             setLocationRelativeTo(null);
 
             JPanel panel = createFormPanel();
@@ -428,6 +7158,15 @@ static class DBManager {
             JTextArea descArea = new JTextArea(5, 20);
             JTextField locationField = new JTextField(20);
             JTextField dateField = new JTextField(LocalDate.now().toString(), 20); // Pre-fill with current date
+            Autocomplete.attach(nameField, Autocomplete.ITEM_NAMES);
+            Autocomplete.attach(locationField, Autocomplete.LOCATIONS);
+            JComboBox<Object> placeBox = Places.chooser("(not on the map)");
+            placeBox.setToolTipText("Named place closest to where the item was; lets others find it with a \"Near\" search");
+            placeBox.addActionListener(e -> {
+                if (placeBox.getSelectedItem() instanceof Place place && locationField.getText().isBlank()) {
+                    locationField.setText(place.name());
+                }
+            });
 
             // Item Name
             constraints.gridx = 0; constraints.gridy = 0; panel.add(new JLabel("Item Name:"), constraints);
@@ -442,13 +7181,17 @@ static class DBManager {
             constraints.gridx = 0; constraints.gridy = 2; panel.add(new JLabel("Location:"), constraints);
             constraints.gridx = 1; constraints.gridy = 2; panel.add(locationField, constraints);
 
+            // Map position
+            constraints.gridx = 0; constraints.gridy = 3; panel.add(new JLabel("Place:"), constraints);
+            constraints.gridx = 1; constraints.gridy = 3; panel.add(placeBox, constraints);
+
             // Date Lost
-            constraints.gridx = 0; constraints.gridy = 3; panel.add(new JLabel("Date Lost (YYYY-MM-DD):"), constraints);
-            constraints.gridx = 1; constraints.gridy = 3; panel.add(dateField, constraints);
+            constraints.gridx = 0; constraints.gridy = 4; panel.add(new JLabel("Date Lost (YYYY-MM-DD):"), constraints);
+            constraints.gridx = 1; constraints.gridy = 4; panel.add(dateField, constraints);
 
             // Submit Button
             JButton submitButton = new JButton("Submit");
-            constraints.gridx = 1; constraints.gridy = 4;
+            constraints.gridx = 1; constraints.gridy = 5;
             panel.add(submitButton, constraints);
 
             submitButton.addActionListener(e -> {
@@ -457,44 +7200,34 @@ static class DBManager {
                 String location = locationField.getText().trim();
                 String dateStr = dateField.getText().trim();
 
-                if (name.isEmpty() || desc.isEmpty() || location.isEmpty() || dateStr.isEmpty()) {
-                    DBManager.showError(this, "Please fill in all fields");
-                    return;
-                }
-
-                try {
-                    LocalDate.parse(dateStr); // Validate date format and convert
-                } catch (DateTimeParseException ex) {
-                    DBManager.showError(this, "Invalid date format. Use YYYY-MM-DD");
+                String invalid = Validation.reportError(name, desc, location, dateStr);
+                if (invalid != null) {
+                    DBManager.showError(this, invalid);
                     return;
                 }
 
-                if (insertLostItem(userId, name, desc, location, dateStr)) {
-                    JOptionPane.showMessageDialog(this, "Lost item reported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    dispose();
-                } else {
+                DBManager.setBusy(this, true, submitButton);
+                Place place = placeBox.getSelectedItem() instanceof Place picked ? picked : null;
+                double latitude = place == null ? Double.NaN : place.latitude();
+                double longitude = place == null ? Double.NaN : place.longitude();
+                DataAccess.onEdt(DataAccess.submit(() -> LostItemRepository.SHARED.insert(userId, name, desc, location,
+                        LocalDate.parse(dateStr), latitude, longitude) != null), inserted -> {
+                    DBManager.setBusy(this, false, submitButton);
+                    if (inserted) {
+                        JOptionPane.showMessageDialog(this, "Lost item reported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        dispose();
+                    } else {
+                        DBManager.showError(this, "Failed to report lost item");
+                    }
+                }, error -> {
+                    DBManager.setBusy(this, false, submitButton);
+                    error.printStackTrace();
+                    DBManager.showError(this, "Database error: " + error.getMessage());
                     DBManager.showError(this, "Failed to report lost item");
-                }
+                });
             });
             return panel;
         }
-
-        private boolean insertLostItem(int userId, String name, String desc, String location, String dateStr) {
-            String sql = "INSERT INTO lost_items (user_id, item_name, description, location, date_lost) VALUES (?, ?, ?, ?, ?)";
-            try (Connection conn = DBManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, userId);
-                pstmt.setString(2, name);
-                pstmt.setString(3, desc);
-                pstmt.setString(4, location);
-                pstmt.setDate(5, java.sql.Date.valueOf(dateStr));
-                return pstmt.executeUpdate() > 0;
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                DBManager.showError(this, "Database error: " + ex.getMessage());
-                return false;
-            }
-        }
     }
 
     // --- Report found item frame ---
@@ -505,7 +7238,7 @@ static class DBManager {
             this.userId = userId;
             setTitle("Report Found Item");
             setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-            setSize(450, 400);
+            setSize(450, 440);
             setLocationRelativeTo(null);
 
             JPanel panel = createFormPanel();
@@ -522,6 +7255,15 @@ static class DBManager {
             JTextArea descArea = new JTextArea(5, 20);
             JTextField locationField = new JTextField(20);
             JTextField dateField = new JTextField(LocalDate.now().toString(), 20); // Pre-fill with current date
+            Autocomplete.attach(nameField, Autocomplete.ITEM_NAMES);
+            Autocomplete.attach(locationField, Autocomplete.LOCATIONS);
+            JComboBox<Object> placeBox = Places.chooser("(not on the map)");
+            placeBox.setToolTipText("Named place closest to where the item was; lets others find it with a \"Near\" search");
+            placeBox.addActionListener(e -> {
+                if (placeBox.getSelectedItem() instanceof Place place && locationField.getText().isBlank()) {
+                    locationField.setText(place.name());
+                }
+            });
 
             // Item Name
             constraints.gridx = 0; constraints.gridy = 0; panel.add(new JLabel("Item Name:"), constraints);
@@ -536,13 +7278,17 @@ static class DBManager {
             constraints.gridx = 0; constraints.gridy = 2; panel.add(new JLabel("Location:"), constraints);
             constraints.gridx = 1; constraints.gridy = 2; panel.add(locationField, constraints);
 
+            // Map position
+            constraints.gridx = 0; constraints.gridy = 3; panel.add(new JLabel("Place:"), constraints);
+            constraints.gridx = 1; constraints.gridy = 3; panel.add(placeBox, constraints);
+
             // Date Found
-            constraints.gridx = 0; constraints.gridy = 3; panel.add(new JLabel("Date Found (YYYY-MM-DD):"), constraints);
-            constraints.gridx = 1; constraints.gridy = 3; panel.add(dateField, constraints);
+            constraints.gridx = 0; constraints.gridy = 4; panel.add(new JLabel("Date Found (YYYY-MM-DD):"), constraints);
+            constraints.gridx = 1; constraints.gridy = 4; panel.add(dateField, constraints);
 
             // Submit Button
             JButton submitButton = new JButton("Submit");
-            constraints.gridx = 1; constraints.gridy = 4;
+            constraints.gridx = 1; constraints.gridy = 5;
             panel.add(submitButton, constraints);
 
             submitButton.addActionListener(e -> {
@@ -551,51 +7297,95 @@ static class DBManager {
                 String location = locationField.getText().trim();
                 String dateStr = dateField.getText().trim();
 
-                if (name.isEmpty() || desc.isEmpty() || location.isEmpty() || dateStr.isEmpty()) {
-                    DBManager.showError(this, "Please fill in all fields");
-                    return;
-                }
-
-                try {
-                    LocalDate.parse(dateStr);
-                } catch (DateTimeParseException ex) {
-                    DBManager.showError(this, "Invalid date format. Use YYYY-MM-DD");
+                String invalid = Validation.reportError(name, desc, location, dateStr);
+                if (invalid != null) {
+                    DBManager.showError(this, invalid);
                     return;
                 }
 
-                if (insertFoundItem(userId, name, desc, location, dateStr)) {
-                    JOptionPane.showMessageDialog(this, "Found item reported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    dispose();
-                } else {
+                DBManager.setBusy(this, true, submitButton);
+                Place place = placeBox.getSelectedItem() instanceof Place picked ? picked : null;
+                double latitude = place == null ? Double.NaN : place.latitude();
+                double longitude = place == null ? Double.NaN : place.longitude();
+                DataAccess.onEdt(DataAccess.submit(() -> FoundItemRepository.SHARED.insert(userId, name, desc, location,
+                        LocalDate.parse(dateStr), latitude, longitude) != null), inserted -> {
+                    DBManager.setBusy(this, false, submitButton);
+                    if (inserted) {
+                        JOptionPane.showMessageDialog(this, "Found item reported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        dispose();
+                    } else {
+                        DBManager.showError(this, "Failed to report found item");
+                    }
+                }, error -> {
+                    DBManager.setBusy(this, false, submitButton);
+                    error.printStackTrace();
+                    DBManager.showError(this, "Database error: " + error.getMessage());
                     DBManager.showError(this, "Failed to report found item");
-                }
+                });
             });
             return panel;
         }
+    }
 
-        private boolean insertFoundItem(int userId, String name, String desc, String location, String dateStr) {
-            String sql = "INSERT INTO found_items (user_id, item_name, description, location, date_found) VALUES (?, ?, ?, ?, ?)";
-            try (Connection conn = DBManager.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setInt(1, userId);
-                pstmt.setString(2, name);
-                pstmt.setString(3, desc);
-                pstmt.setString(4, location);
-                pstmt.setDate(5, java.sql.Date.valueOf(dateStr));
-                return pstmt.executeUpdate() > 0;
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                DBManager.showError(this, "Database error: " + ex.getMessage());
-                return false;
+    // --- "Near" row of the item views: a gazetteer place, a radius and how far back to look ---
+    static class NearbyFilterPanel extends JPanel {
+        private static final String ANYWHERE = "Anywhere";
+        private static final String[] PERIODS = {"Any time", "Today", "Last 7 days", "Last 30 days", "Last year"};
+        private static final int[] PERIOD_DAYS = {-1, 0, 7, 30, 365};
+
+        private final JComboBox<Object> placeBox = Places.chooser(ANYWHERE);
+        private final JSpinner radiusSpinner = new JSpinner(new SpinnerNumberModel(200, 25, 10_000, 25));
+        private final JComboBox<String> periodBox = new JComboBox<>(PERIODS);
+
+        // changed gets the new filter, or null for "Anywhere"
+        NearbyFilterPanel(Consumer<GeoFilter> changed) {
+            super(new FlowLayout(FlowLayout.LEFT, 5, 0));
+            placeBox.setToolTipText("Only items reported at a named place within the radius; the search text still applies");
+            radiusSpinner.setEnabled(false);
+            periodBox.setEnabled(false);
+            add(new JLabel("Near:"));
+            add(placeBox);
+            add(new JLabel("within"));
+            add(radiusSpinner);
+            add(new JLabel("m,"));
+            add(periodBox);
+
+            placeBox.addActionListener(e -> {
+                boolean near = placeBox.getSelectedItem() instanceof Place;
+                radiusSpinner.setEnabled(near);
+                periodBox.setEnabled(near);
+                changed.accept(current());
+            });
+            radiusSpinner.addChangeListener(e -> changed.accept(current()));
+            periodBox.addActionListener(e -> changed.accept(current()));
+        }
+
+        GeoFilter current() {
+            if (!(placeBox.getSelectedItem() instanceof Place place)) {
+                return null;
             }
+            int radius = (Integer) radiusSpinner.getValue();
+            int days = PERIOD_DAYS[periodBox.getSelectedIndex()];
+            return GeoFilter.near(place.name() + " (" + radius + " m)", place.latitude(), place.longitude(), radius,
+                    days < 0 ? null : LocalDate.now().minusDays(days));
         }
     }
 
     // VIEW LOST ITEMS AND VIEW FOUND ITEMS FRAMES
 
 static class ViewLostFrame extends JFrame {
-    private DefaultTableModel model;
+    private ItemTableModel model; // Ranked and fuzzy results
+    private ItemPageModel pagedModel; // Exact match results, fetched page by page
+    private JTable table;
+    private String shownQuery = "";
     private JTextField searchField;
+    private final SearchPipeline<SearchResults> search;
+    private JLabel suggestionLabel;
+    private volatile SearchMode searchMode = SearchMode.EXACT;
+    private volatile GeoFilter area; // Null unless a place is picked under "Near"
+    private volatile boolean includeOlder;
+    private volatile boolean searchArchive;
+    private final ChangeFeed.Subscriber feed = this::itemsAdded;
 
     public ViewLostFrame() {
         setTitle("Lost Items");
@@ -616,6 +7406,19 @@ static class ViewLostFrame extends JFrame {
         searchPanel.setLayout(new BorderLayout(10, 0));
         searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
 
+        search = new SearchPipeline<>(this, this::queryItems, this::showItems,
+            error -> {
+                error.printStackTrace();
+                DBManager.showError(this, "Error loading lost items: " + error.getMessage());
+            });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                search.close();
+                ChangeFeed.unsubscribe(feed);
+            }
+        });
+
         searchField = new JTextField();
         searchField.setFont(new Font("Arial", Font.PLAIN, 16));
         searchField.setToolTipText("Search by item name, description, location, or reporter");
@@ -626,20 +7429,63 @@ static class ViewLostFrame extends JFrame {
             searchField.setText("");
             loadItems(""); // Reload all
         });
-        searchPanel.add(clearBtn, BorderLayout.EAST);
+        JComboBox<SearchMode> modeBox = new JComboBox<>(SearchMode.values());
+        modeBox.setToolTipText("Exact match and Full-text search the database; Ranked and Fuzzy use the in-memory indexes");
+        modeBox.addActionListener(e -> {
+            searchMode = (SearchMode) modeBox.getSelectedItem();
+            loadItems(searchField.getText().trim());
+        });
+
+        JPanel searchOptions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        if (ItemSearch.recentDays() > 0) {
+            JCheckBox olderBox = new JCheckBox("Include older");
+            olderBox.setToolTipText("Also search items dated more than " + ItemSearch.recentDays() + " days ago");
+            olderBox.addActionListener(e -> {
+                includeOlder = olderBox.isSelected();
+                loadItems(searchField.getText().trim());
+            });
+            searchOptions.add(olderBox);
+        }
+        JCheckBox archiveBox = new JCheckBox("Archive");
+        archiveBox.setToolTipText("Search resolved and old items moved to the archive (substring match only)");
+        archiveBox.addActionListener(e -> {
+            searchArchive = archiveBox.isSelected();
+            modeBox.setEnabled(!searchArchive);
+            loadItems(searchField.getText().trim());
+        });
+        searchOptions.add(archiveBox);
+        searchOptions.add(modeBox);
+        searchOptions.add(clearBtn);
+        searchPanel.add(searchOptions, BorderLayout.EAST);
+        searchPanel.add(new NearbyFilterPanel(filter -> {
+            area = filter;
+            loadItems(searchField.getText().trim());
+        }), BorderLayout.SOUTH);
 
         topPanel.add(searchPanel, BorderLayout.SOUTH);
 
-        // === Table Setup ===
-        String[] columns = {"ID", "Item Name", "Description", "Location", "Date Lost", "Reported By"};
-        model = new DefaultTableModel(columns, 0) {
+        // "Did you mean" suggestion; clicking it searches for the suggestion
+        suggestionLabel = new JLabel(" ", JLabel.CENTER);
+        suggestionLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        suggestionLabel.addMouseListener(new MouseAdapter() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
+            public void mouseClicked(MouseEvent e) {
+                String suggestion = (String) suggestionLabel.getClientProperty("suggestion");
+                if (suggestion != null) {
+                    searchField.setText(suggestion);
+                }
             }
-        };
+        });
+        topPanel.add(suggestionLabel, BorderLayout.CENTER);
 
-        JTable table = new JTable(model);
+        // === Table Setup ===
+        String[] columns = {"ID", "Item Name", "Description", "Location", "Date Lost", "Reported By"};
+        model = new ItemTableModel(columns);
+
+        pagedModel = new ItemPageModel(columns, VIEW_PAGE_SIZE);
+        pagedModel.addTableModelListener(e -> updateTitle());
+
+        table = new JTable(pagedModel);
         table.setFont(new Font("Arial", Font.PLAIN, 14));
         table.setRowHeight(25);
         table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
@@ -657,7 +7503,7 @@ static class ViewLostFrame extends JFrame {
 
             private void filter() {
                 String query = searchField.getText().trim();
-                loadItems(query);
+                search.request(query);
             }
         });
 
@@ -665,64 +7511,97 @@ static class ViewLostFrame extends JFrame {
         add(topPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
 
-        // Load all items initially
+        // Load all items initially, then follow new reports
         loadItems("");
+        ChangeFeed.subscribe(feed);
     }
 
     private void loadItems(String searchQuery) {
-        String sql = """
-            SELECT l.id, l.item_name, l.description, l.location, l.date_lost, u.username
-            FROM lost_items l
-            JOIN users u ON l.user_id = u.id
-            WHERE LOWER(l.item_name) LIKE ?
-               OR LOWER(l.description) LIKE ?
-               OR LOWER(l.location) LIKE ?
-               OR LOWER(u.username) LIKE ?
-            ORDER BY l.id DESC
-            """;
-
-        String likeQuery = "%" + searchQuery.toLowerCase() + "%";
-
-        try (Connection conn = DBManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, likeQuery);
-            pstmt.setString(2, likeQuery);
-            pstmt.setString(3, likeQuery);
-            pstmt.setString(4, likeQuery);
-
-            ResultSet rs = pstmt.executeQuery();
-            model.setRowCount(0); // Clear table
-
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("item_name"),
-                    rs.getString("description"),
-                    rs.getString("location"),
-                    rs.getDate("date_lost"),
-                    rs.getString("username")
-                };
-                model.addRow(row);
+        search.runNow(searchQuery);
+    }
+
+    private void showItems(String searchQuery, SearchResults results) {
+        shownQuery = searchQuery;
+        if (results.pages() != null) {
+            pagedModel.reset(results.pages(), results.items());
+            if (table.getModel() != pagedModel) {
+                table.setModel(pagedModel);
+            }
+        } else {
+            model.setItems(results.items());
+            if (table.getModel() != model) {
+                table.setModel(model);
+            }
+        }
+        suggestionLabel.putClientProperty("suggestion", results.suggestion());
+        suggestionLabel.setText(results.suggestion() == null ? " "
+            : "<html>Did you mean: <a href=''>" + results.suggestion() + "</a>?</html>");
+        updateTitle();
+    }
+
+    // New reports from the change feed: exact-match pages take newer matching rows on top,
+    // other modes and late rows rerun the current search
+    private void itemsAdded(ItemTable changed, List<Item> items) {
+        if (changed != ItemTable.LOST || searchArchive) {
+            return;
+        }
+        if (table.getModel() == pagedModel && searchMode == SearchMode.EXACT) {
+            List<Item> matching = new ArrayList<>();
+            LocalDate since = ItemSearch.recentSince(includeOlder);
+            for (Item item : items) {
+                if (item.matches(shownQuery) && ItemSearch.datedSince(item, since)) {
+                    matching.add(item);
+                }
+            }
+            if (pagedModel.prepend(matching)) {
+                return;
             }
+        }
+        search.request(searchField.getText().trim());
+    }
 
-            // Update title if searching
-            String title = searchQuery.isEmpty() ? "Lost Items" : 
-                          "Lost Items - Search: \"" + searchQuery + "\" (" + model.getRowCount() + " results)";
-            ((JLabel)((JPanel)getContentPane().getComponent(0)).getComponent(0)).setText(title);
+    // Update title if searching
+    private void updateTitle() {
+        String count = table.getModel() == pagedModel && !pagedModel.isComplete()
+            ? table.getRowCount() + "+" : String.valueOf(table.getRowCount());
+        GeoFilter filter = area;
+        String title = searchArchive ? "Archived Lost Items"
+                : filter == null ? "Lost Items" : "Lost Items near " + filter.label();
+        if (!shownQuery.isEmpty()) {
+            title += " - Search: \"" + shownQuery + "\"";
+        }
+        if (!shownQuery.isEmpty() || filter != null || searchArchive) {
+            title += " (" + count + " results)";
+        }
+        ((JLabel)((JPanel)getContentPane().getComponent(0)).getComponent(0)).setText(title);
+    }
 
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            DBManager.showError(this, "Error loading lost items: " + ex.getMessage());
+    // Runs on a data-access thread
+    private SearchResults queryItems(String searchQuery, SearchPipeline.Cancellation cancellation) throws SQLException {
+        if (searchArchive) {
+            return ItemSearch.archived(ItemTable.LOST, searchQuery, cancellation);
         }
+        GeoFilter filter = area;
+        return filter != null ? ItemSearch.query(ItemTable.LOST, filter, searchQuery)
+                : ItemSearch.query(ItemTable.LOST, searchMode, searchQuery, ItemSearch.recentSince(includeOlder), cancellation);
     }
 }
 
 // === REPLACE ViewFoundFrame WITH THIS UPGRADED VERSION ===
 
 static class ViewFoundFrame extends JFrame {
-    private DefaultTableModel model;
+    private ItemTableModel model; // Ranked and fuzzy results
+    private ItemPageModel pagedModel; // Exact match results, fetched page by page
+    private JTable table;
+    private String shownQuery = "";
     private JTextField searchField;
+    private final SearchPipeline<SearchResults> search;
+    private JLabel suggestionLabel;
+    private volatile SearchMode searchMode = SearchMode.EXACT;
+    private volatile GeoFilter area; // Null unless a place is picked under "Near"
+    private volatile boolean includeOlder;
+    private volatile boolean searchArchive;
+    private final ChangeFeed.Subscriber feed = this::itemsAdded;
 
     public ViewFoundFrame() {
         setTitle("Found Items");
@@ -742,6 +7621,19 @@ static class ViewFoundFrame extends JFrame {
         JPanel searchPanel = new JPanel(new BorderLayout(10, 0));
         searchPanel.add(new JLabel("Search:"), BorderLayout.WEST);
 
+        search = new SearchPipeline<>(this, this::queryItems, this::showItems,
+            error -> {
+                error.printStackTrace();
+                DBManager.showError(this, "Error loading found items: " + error.getMessage());
+            });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                search.close();
+                ChangeFeed.unsubscribe(feed);
+            }
+        });
+
         searchField = new JTextField();
         searchField.setFont(new Font("Arial", Font.PLAIN, 16));
         searchField.setToolTipText("Search by item name, description, location, or reporter");
@@ -753,20 +7645,63 @@ static class ViewFoundFrame extends JFrame {
             searchField.setText("");
             loadItems("");
         });
-        searchPanel.add(clearBtn, BorderLayout.EAST);
+        JComboBox<SearchMode> modeBox = new JComboBox<>(SearchMode.values());
+        modeBox.setToolTipText("Exact match and Full-text search the database; Ranked and Fuzzy use the in-memory indexes");
+        modeBox.addActionListener(e -> {
+            searchMode = (SearchMode) modeBox.getSelectedItem();
+            loadItems(searchField.getText().trim());
+        });
+
+        JPanel searchOptions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        if (ItemSearch.recentDays() > 0) {
+            JCheckBox olderBox = new JCheckBox("Include older");
+            olderBox.setToolTipText("Also search items dated more than " + ItemSearch.recentDays() + " days ago");
+            olderBox.addActionListener(e -> {
+                includeOlder = olderBox.isSelected();
+                loadItems(searchField.getText().trim());
+            });
+            searchOptions.add(olderBox);
+        }
+        JCheckBox archiveBox = new JCheckBox("Archive");
+        archiveBox.setToolTipText("Search resolved and old items moved to the archive (substring match only)");
+        archiveBox.addActionListener(e -> {
+            searchArchive = archiveBox.isSelected();
+            modeBox.setEnabled(!searchArchive);
+            loadItems(searchField.getText().trim());
+        });
+        searchOptions.add(archiveBox);
+        searchOptions.add(modeBox);
+        searchOptions.add(clearBtn);
+        searchPanel.add(searchOptions, BorderLayout.EAST);
+        searchPanel.add(new NearbyFilterPanel(filter -> {
+            area = filter;
+            loadItems(searchField.getText().trim());
+        }), BorderLayout.SOUTH);
 
         topPanel.add(searchPanel, BorderLayout.SOUTH);
 
-        // === Table ===
-        String[] columns = {"ID", "Item Name", "Description", "Location", "Date Found", "Reported By"};
-        model = new DefaultTableModel(columns, 0) {
+        // "Did you mean" suggestion; clicking it searches for the suggestion
+        suggestionLabel = new JLabel(" ", JLabel.CENTER);
+        suggestionLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        suggestionLabel.addMouseListener(new MouseAdapter() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            public void mouseClicked(MouseEvent e) {
+                String suggestion = (String) suggestionLabel.getClientProperty("suggestion");
+                if (suggestion != null) {
+                    searchField.setText(suggestion);
+                }
             }
-        };
+        });
+        topPanel.add(suggestionLabel, BorderLayout.CENTER);
+
+        // === Table ===
+        String[] columns = {"ID", "Item Name", "Description", "Location", "Date Found", "Reported By"};
+        model = new ItemTableModel(columns);
 
-        JTable table = new JTable(model);
+        pagedModel = new ItemPageModel(columns, VIEW_PAGE_SIZE);
+        pagedModel.addTableModelListener(e -> updateTitle());
+
+        table = new JTable(pagedModel);
         table.setFont(new Font("Arial", Font.PLAIN, 14));
         table.setRowHeight(25);
         table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
@@ -784,7 +7719,7 @@ static class ViewFoundFrame extends JFrame {
 
             private void filter() {
                 String query = searchField.getText().trim();
-                loadItems(query);
+                search.request(query);
             }
         });
 
@@ -792,57 +7727,107 @@ static class ViewFoundFrame extends JFrame {
         add(scrollPane, BorderLayout.CENTER);
 
         loadItems(""); // Load all initially
+        ChangeFeed.subscribe(feed); // Then follow new reports
     }
 
     private void loadItems(String searchQuery) {
-        String sql = """
-            SELECT f.id, f.item_name, f.description, f.location, f.date_found, u.username
-            FROM found_items f
-            JOIN users u ON f.user_id = u.id
-            WHERE LOWER(f.item_name) LIKE ?
-               OR LOWER(f.description) LIKE ?
-               OR LOWER(f.location) LIKE ?
-               OR LOWER(u.username) LIKE ?
-            ORDER BY f.id DESC
-            """;
-
-        String likeQuery = "%" + searchQuery.toLowerCase() + "%";
-
-        try (Connection conn = DBManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            for (int i = 1; i <= 4; i++) {
-                pstmt.setString(i, likeQuery);
-            }
-
-            ResultSet rs = pstmt.executeQuery();
-            model.setRowCount(0);
-
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"),
-                    rs.getString("item_name"),
-                    rs.getString("description"),
-                    rs.getString("location"),
-                    rs.getDate("date_found"),
-                    rs.getString("username")
-                };
-                model.addRow(row);
+        search.runNow(searchQuery);
+    }
+
+    private void showItems(String searchQuery, SearchResults results) {
+        shownQuery = searchQuery;
+        if (results.pages() != null) {
+            pagedModel.reset(results.pages(), results.items());
+            if (table.getModel() != pagedModel) {
+                table.setModel(pagedModel);
+            }
+        } else {
+            model.setItems(results.items());
+            if (table.getModel() != model) {
+                table.setModel(model);
+            }
+        }
+        suggestionLabel.putClientProperty("suggestion", results.suggestion());
+        suggestionLabel.setText(results.suggestion() == null ? " "
+            : "<html>Did you mean: <a href=''>" + results.suggestion() + "</a>?</html>");
+        updateTitle();
+    }
+
+    // New reports from the change feed: exact-match pages take newer matching rows on top,
+    // other modes and late rows rerun the current search
+    private void itemsAdded(ItemTable changed, List<Item> items) {
+        if (changed != ItemTable.FOUND || searchArchive) {
+            return;
+        }
+        if (table.getModel() == pagedModel && searchMode == SearchMode.EXACT) {
+            List<Item> matching = new ArrayList<>();
+            LocalDate since = ItemSearch.recentSince(includeOlder);
+            for (Item item : items) {
+                if (item.matches(shownQuery) && ItemSearch.datedSince(item, since)) {
+                    matching.add(item);
+                }
+            }
+            if (pagedModel.prepend(matching)) {
+                return;
             }
+        }
+        search.request(searchField.getText().trim());
+    }
 
-            String title = searchQuery.isEmpty() ? "Found Items" :
-                          "Found Items - Search: \"" + searchQuery + "\" (" + model.getRowCount() + " results)";
-            ((JLabel)((JPanel)getContentPane().getComponent(0)).getComponent(0)).setText(title);
+    // Update title if searching
+    private void updateTitle() {
+        String count = table.getModel() == pagedModel && !pagedModel.isComplete()
+            ? table.getRowCount() + "+" : String.valueOf(table.getRowCount());
+        GeoFilter filter = area;
+        String title = searchArchive ? "Archived Found Items"
+                : filter == null ? "Found Items" : "Found Items near " + filter.label();
+        if (!shownQuery.isEmpty()) {
+            title += " - Search: \"" + shownQuery + "\"";
+        }
+        if (!shownQuery.isEmpty() || filter != null || searchArchive) {
+            title += " (" + count + " results)";
+        }
+        ((JLabel)((JPanel)getContentPane().getComponent(0)).getComponent(0)).setText(title);
+    }
 
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            DBManager.showError(this, "Error loading found items: " + ex.getMessage());
+    // Runs on a data-access thread
+    private SearchResults queryItems(String searchQuery, SearchPipeline.Cancellation cancellation) throws SQLException {
+        if (searchArchive) {
+            return ItemSearch.archived(ItemTable.FOUND, searchQuery, cancellation);
         }
+        GeoFilter filter = area;
+        return filter != null ? ItemSearch.query(ItemTable.FOUND, filter, searchQuery)
+                : ItemSearch.query(ItemTable.FOUND, searchMode, searchQuery, ItemSearch.recentSince(includeOlder), cancellation);
     }
 }
 
     // --- Main method ---
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new SignUpFrame().setVisible(true));
+        if (args.length > 0 && args[0].equals("--export")) {
+            System.exit(ItemExporter.runCommandLine(args));
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            ApiServer.runCommandLine(args);
+            return;
+        }
+        StartupTimer.mainStarted();
+        boolean exitWhenInteractive = args.length > 0 && args[0].equals("--exit-when-interactive"); // CDS training run
+        if (EDT_WATCHDOG) {
+            EdtWatchdog.install();
+        }
+        SwingUtilities.invokeLater(() -> {
+            SignUpFrame frame = new SignUpFrame();
+            StartupTimer.watch(frame, () -> {
+                if (exitWhenInteractive) {
+                    System.exit(0);
+                }
+            });
+            frame.setVisible(true);
+            // Build the in-memory search indexes once the tables are known to exist
+            DBManager.schemaReady().thenRun(SearchIndexes::warmUp);
+            ItemPartitions.install();
+            ItemArchiver.install();
+            MatchEngine.install();
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
+
+/**
+ * Compares the heap footprint of the item view table models.
+ * Builds the old DefaultTableModel (one Object[] per row, wrapped in a Vector) and the
+ * columnar ItemTableModel from the same synthetic rows, and reports retained heap for each.
+ *
+ * Usage: java -Xmx4g -cp . TableModelFootprint [rows...]   (default: 100000 1000000)
+ */
+public class TableModelFootprint {
+
+    private static final String[] COLUMNS = {"ID", "Item Name", "Description", "Location", "Date Lost", "Reported By"};
+    private static final String[] ITEM_NAMES = {"Black backpack", "Blue wallet", "AirPods case", "Calculator",
+        "Water bottle", "Umbrella", "Student ID card", "Keys", "Laptop charger", "Glasses"};
+    private static final int DISTINCT_LOCATIONS = 300;
+    private static final int DISTINCT_USERS = 3000;
+    private static final int DISTINCT_DAYS = 1500;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {100_000, 1_000_000} : parseSizes(args);
+        System.out.printf("%10s %22s %22s %8s%n", "rows", "DefaultTableModel", "ItemTableModel", "ratio");
+        for (int rows : sizes) {
+            long legacy = retainedBytes(() -> legacyModel(rows));
+            long columnar = retainedBytes(() -> columnarModel(rows));
+            System.out.printf("%10d %16.1f MiB %16.1f MiB %7.1fx%n", rows,
+                    legacy / 1048576.0, columnar / 1048576.0, (double) legacy / columnar);
+        }
+    }
+
+    private static int[] parseSizes(String[] args) {
+        int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+
+    // Builds rows the way JDBC hands them over: a fresh String and Date per value
+    private static List<LostAndFoundSystem.Item> items(int rows) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.now().minusDays(DISTINCT_DAYS);
+        List<LostAndFoundSystem.Item> items = new ArrayList<>(rows);
+        for (int i = rows; i >= 1; i--) {
+            items.add(new LostAndFoundSystem.Item(i, 1 + random.nextInt(DISTINCT_USERS),
+                    new String(ITEM_NAMES[random.nextInt(ITEM_NAMES.length)] + " #" + i),
+                    new String("Found near the entrance, reported at desk " + random.nextInt(20)),
+                    new String("Building " + random.nextInt(DISTINCT_LOCATIONS)),
+                    java.sql.Date.valueOf(start.plusDays(random.nextInt(DISTINCT_DAYS))),
+                    new String("student" + random.nextInt(DISTINCT_USERS))));
+        }
+        return items;
+    }
+
+    private static TableModel legacyModel(int rows) {
+        List<LostAndFoundSystem.Item> items = items(rows);
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+        for (LostAndFoundSystem.Item item : items) {
+            model.addRow(item.toRow());
+        }
+        return model;
+    }
+
+    private static TableModel columnarModel(int rows) {
+        LostAndFoundSystem.ItemTableModel model = new LostAndFoundSystem.ItemTableModel(COLUMNS);
+        model.setItems(items(rows));
+        return model;
+    }
+
+    // Heap still reachable from the model once its source rows are garbage
+    private static long retainedBytes(java.util.function.Supplier<TableModel> factory) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        settle();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        TableModel model = factory.get();
+        settle();
+        long after = memory.getHeapMemoryUsage().getUsed();
+        if (model.getRowCount() == 0) {
+            throw new IllegalStateException("empty model");
+        }
+        return after - before;
+    }
+
+    private static void settle() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
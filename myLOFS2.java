@@ -17,9 +17,9 @@ public class myLOFS2 {
     //  --- Utility Class for Database Operations ---
     public static class DatabaseUtil {
         
-        // Method to establish a database connection
+        // Method to establish a database connection (shares LostAndFoundSystem's connection pool)
         public static Connection getConnection() throws SQLException {
-            return java.sql.DriverManager.getConnection(db_URL,db_USER,db_PASSWORD);
+            return LostAndFoundSystem.DBManager.getConnection();
         }
         
         // Method to close database resources
@@ -38,69 +38,9 @@ public class myLOFS2 {
             
         }
 
+        // Schema lives in LostAndFoundSystem.DBManager so both front ends create the same tables
         public static void initializeDatabase(JLabel statusLabel) {
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-
-            } catch (ClassNotFoundException e) {
-                // TODO: handle exception
-                statusLabel.setText("Database Driver not found.");
-                statusLabel.setForeground(Color.RED);
-                showError(null, "MySQL JDBC Driver not found!\nPlease add the MySQL Connector/J library.");
-                return;
-            }
-
-            try (Connection conn = getConnection();
-                Statement stmt = conn.createStatement()){
-                String usersTableSQL = """
-                        CREATE TABLE IF NOT EXISTS users (
-                            id INT AUTO_INCREMENT PRIMARY KEY,
-                            username VARCHAR(50) NOT NULL UNIQUE,
-                            email VARCHAR(100) NOT NULL UNIQUE,
-                            password VARCHAR(255) NOT NULL,
-                            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-                        );
-                        """;
-
-                String lostItemsTableSQL = """
-                        CREATE TABLE IF NOT EXISTS lost_items (
-                            id INT AUTO_INCREMENT PRIMARY KEY,
-                            user_id INT NOT NULL,
-                            item_name VARCHAR(100) NOT NULL,
-                            description TEXT,
-                            date_lost DATE,
-                            location VARCHAR(255),
-                            contact_info VARCHAR(255),
-                            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                            FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                        );
-                        """;
-
-                String foundItemsTableSQL = """
-                        CREATE TABLE IF NOT EXISTS found_items (
-                            id INT AUTO_INCREMENT PRIMARY KEY,
-                            user_id INT NOT NULL,
-                            item_name VARCHAR(100) NOT NULL,
-                            description TEXT,
-                            date_found DATE,
-                            location VARCHAR(255),
-                            contact_info VARCHAR(255),
-                            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                            FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-                        );
-                        """;
-
-                stmt.executeUpdate(usersTableSQL);
-                stmt.executeUpdate(lostItemsTableSQL);
-                stmt.executeUpdate(foundItemsTableSQL);
-                statusLabel.setText("Database initialized successfully.");
-                statusLabel.setForeground(new Color(0, 128, 0)); 
-            } catch (Exception e) {
-                // TODO: handle exception
-                statusLabel.setText("Database initialization failed." + e.getMessage());
-                statusLabel.setForeground(Color.RED);
-                showError(null, "Database initialization failed!\n" + e.getMessage()+ "nPlease check your database settings and ensure the MySQL server is running.");
-            }
+            LostAndFoundSystem.DBManager.initializeDatabase(statusLabel);
 }
     // Sign up Frame
     static class SignUpFrame extends JFrame {
@@ -152,9 +92,16 @@ public class myLOFS2 {
                 if (username.isEmpty() || email.isEmpty() || password.isEmpty()) {
                     DBManager.showError(this, "All fields are required!");
                 } else {
-                   
-                    statusLabel.setText("Sign-up successful!");
-                    statusLabel.setForeground(new Color(0, 128, 0)); 
+                    LostAndFoundSystem.DataAccess.onEdt(LostAndFoundSystem.DataAccess.submit(() ->
+                        !LostAndFoundSystem.UserRepository.SHARED.exists(username, email)
+                            && LostAndFoundSystem.UserRepository.SHARED.create(username, email, password)), created -> {
+                        if (created) {
+                            statusLabel.setText("Sign-up successful!");
+                            statusLabel.setForeground(new Color(0, 128, 0));
+                        } else {
+                            DBManager.showError(this, "Username or email already exists");
+                        }
+                    }, error -> DBManager.showError(this, error.getMessage()));
                 }
             });
             return panel;
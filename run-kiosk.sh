@@ -0,0 +1,32 @@
+#!/bin/sh
+# Launches LostAndFoundSystem with an application class-data sharing (AppCDS) archive.
+# The first launch does a training run that opens the first frame, exits, and dumps the
+# loaded classes to $LOF_CDS_ARCHIVE. Later launches map that archive, which cuts class
+# loading and verification from the path to the first window.
+# CDS only archives classes loaded from jar files, so the compiled classes
+# (javac -cp lib/mysql-connector-j-9.4.0.jar LostAndFoundSystem.java) are packed into
+# lostandfound.jar first. The jar and the archive are rebuilt whenever the classes change.
+#
+# Usage: ./run-kiosk.sh [args...]   (set LOF_STARTUP_REPORT=false to hide the timings)
+set -e
+cd "$(dirname "$0")"
+
+JAR="lostandfound.jar"
+ARCHIVE="${LOF_CDS_ARCHIVE:-lostandfound.jsa}"
+CLASSPATH="$JAR:lib/mysql-connector-j-9.4.0.jar"
+REPORT="-Dlof.startup.report=${LOF_STARTUP_REPORT:-true}"
+
+if [ ! -f LostAndFoundSystem.class ]; then
+    echo "Compile first: javac -cp lib/mysql-connector-j-9.4.0.jar LostAndFoundSystem.java" >&2
+    exit 1
+fi
+if [ ! -f "$JAR" ] || [ -n "$(find . -maxdepth 1 -name 'LostAndFoundSystem*.class' -newer "$JAR")" ]; then
+    jar cf "$JAR" LostAndFoundSystem*.class
+    rm -f "$ARCHIVE"
+fi
+if [ ! -f "$ARCHIVE" ]; then
+    echo "Creating class-data sharing archive $ARCHIVE ..."
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" "$REPORT" -cp "$CLASSPATH" LostAndFoundSystem --exit-when-interactive
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto "$REPORT" -cp "$CLASSPATH" LostAndFoundSystem "$@"